@@ -0,0 +1,74 @@
+package com.wasteless.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process caches in front of the Spoonacular API.
+ * Every cache records stats so hit/miss/eviction counts show up under /actuator/metrics (cache.*)
+ * and the caches themselves under /actuator/caches.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RECIPE_DETAILS_CACHE = "spoonacularRecipeDetails";
+    public static final String RECIPE_SEARCH_CACHE = "spoonacularRecipeSearch";
+    public static final String RECIPE_SUGGESTIONS_CACHE = "recipeSuggestions";
+    // Last known good response per normalized Spoonacular request, served while the circuit breaker is open
+    public static final String SPOONACULAR_STALE_CACHE = "spoonacularStale";
+
+    @Value("${recipe.cache.details.max-size:5000}")
+    private long recipeDetailsMaxSize;
+
+    @Value("${recipe.cache.details.ttl:6h}")
+    private Duration recipeDetailsTtl;
+
+    @Value("${recipe.cache.search.max-size:2000}")
+    private long recipeSearchMaxSize;
+
+    @Value("${recipe.cache.search.ttl:1h}")
+    private Duration recipeSearchTtl;
+
+    // Number of users with cached suggestions
+    @Value("${recipe.cache.suggestions.max-size:10000}")
+    private long recipeSuggestionsMaxSize;
+
+    @Value("${recipe.cache.suggestions.ttl:6h}")
+    private Duration recipeSuggestionsTtl;
+
+    @Value("${spoonacular.stale-cache.max-size:20000}")
+    private long staleMaxSize;
+
+    @Value("${spoonacular.stale-cache.ttl:7d}")
+    private Duration staleTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                buildCache(RECIPE_DETAILS_CACHE, recipeDetailsMaxSize, recipeDetailsTtl),
+                buildCache(RECIPE_SEARCH_CACHE, recipeSearchMaxSize, recipeSearchTtl),
+                buildCache(RECIPE_SUGGESTIONS_CACHE, recipeSuggestionsMaxSize, recipeSuggestionsTtl),
+                buildCache(SPOONACULAR_STALE_CACHE, staleMaxSize, staleTtl)
+        ));
+        return cacheManager;
+    }
+
+    private CaffeineCache buildCache(String name, long maxSize, Duration ttl) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+}
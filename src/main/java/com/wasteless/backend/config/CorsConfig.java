@@ -33,8 +33,8 @@ public class CorsConfig {
         // Allow credentials (cookies, authorization headers, etc.)
         configuration.setAllowCredentials(true);
 
-        // Expose Authorization header to frontend
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        // Expose Authorization and pagination headers to frontend
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Next-Cursor"));
 
         // How long the response from a pre-flight request can be cached
         configuration.setMaxAge(3600L);
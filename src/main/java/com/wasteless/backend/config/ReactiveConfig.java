@@ -0,0 +1,26 @@
+package com.wasteless.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler used to offload blocking JPA calls out of reactive pipelines.
+ * Keep the pool size in line with the datasource pool; extra threads would only wait on connections.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    @Value("${recipe.reactive.jpa-pool-size:10}")
+    private int jpaPoolSize;
+
+    @Value("${recipe.reactive.jpa-queue-size:1000}")
+    private int jpaQueueSize;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler() {
+        return Schedulers.newBoundedElastic(jpaPoolSize, jpaQueueSize, "jpa");
+    }
+}
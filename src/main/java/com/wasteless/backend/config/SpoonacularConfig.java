@@ -1,9 +1,16 @@
 package com.wasteless.backend.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class SpoonacularConfig {
@@ -14,15 +21,127 @@ public class SpoonacularConfig {
     @Value("${spoonacular.api.key:}")
     private String apiKey;
 
+    // Comma-separated keys to spread calls over; spoonacular.api.key is used when empty
+    @Value("${spoonacular.api.keys:}")
+    private List<String> apiKeys;
+
+    // How long a key answered with 429 is skipped when Spoonacular sends no Retry-After
+    @Value("${spoonacular.api.key-rate-limit-cooldown:10s}")
+    private Duration keyRateLimitCooldown;
+
+    // Upper bound on a single upstream call, so slow calls fail (and count against the circuit breaker)
+    @Value("${spoonacular.api.timeout:10s}")
+    private Duration timeout;
+
+    // Connection pool and socket settings of the Spoonacular HTTP client
+    @Value("${spoonacular.client.max-connections:50}")
+    private int maxConnections;
+
+    // Longest a call waits for a free pooled connection
+    @Value("${spoonacular.client.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    // Idle keep-alive connections are closed after this, before the server or a proxy drops them
+    @Value("${spoonacular.client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${spoonacular.client.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${spoonacular.client.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    // Max time between sending the request and reading the response
+    @Value("${spoonacular.client.response-timeout:8s}")
+    private Duration responseTimeout;
+
+    // Token bucket in Spoonacular points, per API key: bursts up to the capacity, refilled at a steady rate
+    @Value("${spoonacular.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${spoonacular.rate-limit.bucket-capacity:10}")
+    private double rateLimitBucketCapacity;
+
+    @Value("${spoonacular.rate-limit.refill-points-per-second:1}")
+    private double rateLimitRefillPointsPerSecond;
+
+    // Longest a caller waits for tokens before the call is rejected as throttled
+    @Value("${spoonacular.rate-limit.max-wait:2s}")
+    private Duration rateLimitMaxWait;
+
+    // Daily point quota of the plan, per key; corrected from the X-API-Quota-* response headers
+    @Value("${spoonacular.rate-limit.daily-quota:150}")
+    private double dailyQuota;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider spoonacularConnectionProvider() {
+        return ConnectionProvider.builder("spoonacular")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient spoonacularWebClient() {
+    public WebClient spoonacularWebClient(ConnectionProvider spoonacularConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(spoonacularConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                // Sends Accept-Encoding: gzip and decompresses responses
+                .compress(true);
+
         return WebClient.builder()
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader("Content-Type", "application/json")
                 .build();
     }
 
-    public String getApiKey() {
-        return apiKey;
+    /**
+     * Configured API keys, trimmed and deduplicated
+     */
+    public List<String> getApiKeys() {
+        List<String> keys = apiKeys.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .toList();
+        if (keys.isEmpty() && apiKey != null && !apiKey.isBlank()) {
+            return List.of(apiKey.trim());
+        }
+        return keys;
+    }
+
+    public Duration getKeyRateLimitCooldown() {
+        return keyRateLimitCooldown;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isRateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+
+    public double getRateLimitBucketCapacity() {
+        return rateLimitBucketCapacity;
+    }
+
+    public double getRateLimitRefillPointsPerSecond() {
+        return rateLimitRefillPointsPerSecond;
+    }
+
+    public Duration getRateLimitMaxWait() {
+        return rateLimitMaxWait;
+    }
+
+    public double getDailyQuota() {
+        return dailyQuota;
     }
 }
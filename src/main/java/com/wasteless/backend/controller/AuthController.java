@@ -6,6 +6,7 @@ import com.wasteless.backend.dto.UpdateProfileRequest;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.UserRepository;
 import com.wasteless.backend.service.AuthService;
+import com.wasteless.backend.service.image.ImageStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -22,6 +23,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final ImageStore imageStore;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
@@ -59,7 +61,7 @@ public class AuthController {
         response.put("email", user.getEmail());
         response.put("fullName", user.getFullName());
         response.put("phone", user.getPhone());
-        response.put("profilePicture", user.getProfilePicture());
+        response.put("profilePicture", ImageStore.url(user.getProfilePictureHash(), user.getProfilePicture()));
         response.put("role", user.getRole());
         response.put("onboardingCompleted", user.isOnboardingCompleted());
 
@@ -81,8 +83,14 @@ public class AuthController {
         if (request.getPhone() != null) {
             user.setPhone(request.getPhone());
         }
-        if (request.getProfilePicture() != null) {
-            user.setProfilePicture(request.getProfilePicture());
+        ImageStore.ImageRef picture = imageStore.resolve(request.getProfilePictureHash(), request.getProfilePicture());
+        if (picture != null) {
+            user.setProfilePictureHash(picture.hash());
+            user.setProfilePicture(picture.url());
+        } else if ("".equals(request.getProfilePicture())) {
+            // An empty value removes the picture
+            user.setProfilePictureHash(null);
+            user.setProfilePicture(null);
         }
 
         // Save updated user
@@ -94,7 +102,7 @@ public class AuthController {
         response.put("email", user.getEmail());
         response.put("fullName", user.getFullName());
         response.put("phone", user.getPhone());
-        response.put("profilePicture", user.getProfilePicture());
+        response.put("profilePicture", ImageStore.url(user.getProfilePictureHash(), user.getProfilePicture()));
         response.put("role", user.getRole());
         response.put("onboardingCompleted", user.isOnboardingCompleted());
         response.put("message", "Profile updated successfully");
@@ -0,0 +1,148 @@
+package com.wasteless.backend.controller;
+
+import com.wasteless.backend.dto.image.ImageUploadResponse;
+import com.wasteless.backend.service.image.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    // Tomcat's sendfile hook: the connector writes the file straight from the page cache to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // A hash names exactly one image, so its response never changes; private, as images are only served to
+    // signed-in users and must not be kept by shared caches
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+    // The original standing in for a thumbnail that is still being generated
+    private static final CacheControl PENDING_THUMBNAIL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+
+    private final ImageStore imageStore;
+
+    /**
+     * POST /images (multipart, field "file")
+     * Store an image; uploading the same bytes again returns the same hash
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageUploadResponse> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        ImageStore.StoredImage image;
+        try (InputStream in = file.getInputStream()) {
+            image = imageStore.store(in);
+        }
+
+        return ResponseEntity.ok(ImageUploadResponse.builder()
+                .hash(image.hash())
+                .url(ImageStore.url(image.hash(), null))
+                .thumbnailUrl(ImageStore.thumbnailUrl(image.hash(), null))
+                .contentType(image.contentType().toString())
+                .size(image.size())
+                .build());
+    }
+
+    /**
+     * GET /images/{hash}
+     * The image, with a strong ETag and byte-range support
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<?> getImage(@PathVariable String hash, ServletWebRequest request) throws IOException {
+        Path image = imageStore.find(hash)
+                .orElseThrow(() -> new RuntimeException("Image not found"));
+        return serve(image, "\"" + hash + "\"", IMMUTABLE, request);
+    }
+
+    /**
+     * GET /images/{hash}/thumbnail
+     * A downscaled copy, or the original while there is none
+     */
+    @GetMapping("/{hash}/thumbnail")
+    public ResponseEntity<?> getThumbnail(@PathVariable String hash, ServletWebRequest request) throws IOException {
+        Optional<Path> thumbnail = imageStore.findThumbnail(hash);
+        if (thumbnail.isPresent()) {
+            return serve(thumbnail.get(), "\"" + hash + "-thumbnail\"", IMMUTABLE, request);
+        }
+
+        Path image = imageStore.find(hash)
+                .orElseThrow(() -> new RuntimeException("Image not found"));
+        return serve(image, "\"" + hash + "\"", PENDING_THUMBNAIL, request);
+    }
+
+    /**
+     * Answer If-None-Match with 304; otherwise send the file, through sendfile when the container offers it
+     * (whole file or a single range), else as a Resource so Spring handles Range
+     */
+    private ResponseEntity<?> serve(Path file, String etag, CacheControl cacheControl, ServletWebRequest webRequest)
+            throws IOException {
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        MediaType contentType = imageStore.contentType(file);
+        HttpServletRequest request = webRequest.getRequest();
+        if ("GET".equals(request.getMethod()) && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            List<HttpRange> ranges = HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+            if (ranges.size() <= 1) {
+                sendfile(file, contentType, cacheControl, ranges.isEmpty() ? null : ranges.get(0), webRequest);
+                return null;
+            }
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(contentType)
+                .body(new FileSystemResource(file));
+    }
+
+    private static void sendfile(Path file, MediaType contentType, CacheControl cacheControl, HttpRange range,
+                                 ServletWebRequest webRequest) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if (start >= length || end < start) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(end - start + 1);
+        request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end + 1);
+    }
+}
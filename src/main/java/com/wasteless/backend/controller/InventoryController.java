@@ -1,11 +1,18 @@
 package com.wasteless.backend.controller;
 
+import com.wasteless.backend.dto.inventory.InventoryChanges;
+import com.wasteless.backend.dto.inventory.InventoryPage;
 import com.wasteless.backend.dto.inventory.InventoryRequest;
 import com.wasteless.backend.dto.inventory.InventoryResponse;
+import com.wasteless.backend.dto.inventory.InventorySummaryResponse;
+import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.service.InventoryService;
+import com.wasteless.backend.service.InventoryVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,11 +21,68 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InventoryController {
 
+    // Clients may keep the list but must revalidate it, and shared caches must not keep it at all
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final InventoryService inventoryService;
+    private final InventoryVersionService inventoryVersionService;
 
+    /**
+     * GET /inventory/{userId}/all
+     * ETag is the user's inventory version; If-None-Match with the current one gets 304 without loading any items
+     */
     @GetMapping("/{userId}/all")
-    public ResponseEntity<List<InventoryResponse>> getAllItems(@PathVariable Long userId) {
-        return ResponseEntity.ok(inventoryService.getAllItems(userId));
+    public ResponseEntity<List<InventoryResponse>> getAllItems(@PathVariable Long userId, WebRequest webRequest) {
+        String etag = inventoryVersionService.etag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(inventoryService.getAllItems(userId));
+    }
+
+    /**
+     * GET /inventory/{userId}/items?status={status}&category={category}&storageLocation={location}&cursor={cursor}&limit={limit}
+     * Get a user's items, soonest expiry first, without images (see GET /inventory/item/{id})
+     * Only ACTIVE items unless another status is given
+     * When there are more, the X-Next-Cursor header holds the cursor for the next page
+     * ETag and 304 as for GET /inventory/{userId}/all
+     */
+    @GetMapping("/{userId}/items")
+    public ResponseEntity<List<InventorySummaryResponse>> listItems(
+            @PathVariable Long userId,
+            @RequestParam(required = false) InventoryItem.ItemStatus status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String storageLocation,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        String etag = inventoryVersionService.etag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        InventoryPage page = inventoryService.listItems(userId, status, category, storageLocation, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE);
+        if (page.getNextCursor() != null) {
+            response.header(RecipeController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * GET /inventory/{userId}/changes?since={cursor}
+     * Items added or changed and ids of items deleted since the cursor, with the cursor to pass next time
+     * Without since, all items: call once to start, then keep passing the returned cursor
+     */
+    @GetMapping("/{userId}/changes")
+    public ResponseEntity<InventoryChanges> getChanges(@PathVariable Long userId,
+                                                       @RequestParam(required = false) String since) {
+        return ResponseEntity.ok(inventoryService.getChanges(userId, since));
     }
 
     @PostMapping("/{userId}/add")
@@ -26,6 +90,16 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.addItem(userId, request));
     }
 
+    /**
+     * POST /inventory/{userId}/bulk
+     * Add up to 1000 items in one request; nothing is saved if any item is invalid
+     */
+    @PostMapping("/{userId}/bulk")
+    public ResponseEntity<List<InventoryResponse>> addItems(@PathVariable Long userId,
+                                                            @RequestBody List<InventoryRequest> requests) {
+        return ResponseEntity.ok(inventoryService.addItems(userId, requests));
+    }
+
     @GetMapping("/item/{id}")
     public ResponseEntity<InventoryResponse> getItemById(@PathVariable Long id) {
         return ResponseEntity.ok(inventoryService.getItemById(id));
@@ -0,0 +1,57 @@
+package com.wasteless.backend.controller;
+
+import com.wasteless.backend.dto.recipe.RecipeResponse;
+import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
+import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.service.RecipeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Same endpoints as {@link RecipeLookupController}, completing asynchronously instead of holding the request thread
+ * while Spoonacular answers (recipe.reactive.enabled=true)
+ */
+@RestController
+@RequestMapping("/api/v1/recipes")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipe.reactive.enabled", havingValue = "true")
+public class ReactiveRecipeLookupController {
+
+    private final RecipeService recipeService;
+
+    @PostMapping("/suggest")
+    public Mono<ResponseEntity<List<RecipeResponse>>> suggestRecipes(
+            @RequestParam Long userId,
+            @RequestBody RecipeSuggestRequest request) {
+        return recipeService.suggestRecipesReactive(userId, request).map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/suggest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> suggestRecipesStream(
+            @RequestParam Long userId,
+            @RequestBody RecipeSuggestRequest request) {
+        return RecipeLookupController.toServerSentEvents(recipeService.suggestRecipesStreamReactive(userId, request));
+    }
+
+    @PostMapping("/search")
+    public Mono<ResponseEntity<List<RecipeResponse>>> searchRecipes(
+            @RequestParam Long userId,
+            @RequestBody RecipeSearchRequest request) {
+        return recipeService.searchRecipesReactive(userId, request).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{spoonacularId}")
+    public Mono<ResponseEntity<RecipeResponse>> getRecipeDetails(
+            @PathVariable Long spoonacularId,
+            @RequestParam Long userId) {
+        return recipeService.getRecipeDetailsReactive(spoonacularId).map(ResponseEntity::ok);
+    }
+}
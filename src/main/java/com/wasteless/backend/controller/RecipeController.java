@@ -8,46 +8,21 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+/**
+ * Saved and cooked recipes; search, suggest and details are in {@link RecipeLookupController}
+ * or {@link ReactiveRecipeLookupController}, depending on recipe.reactive.enabled
+ */
 @RestController
 @RequestMapping("/api/v1/recipes")
 @RequiredArgsConstructor
 public class RecipeController {
 
-    private final RecipeService recipeService;
-
-    /**
-     * POST /recipes/suggest?userId={userId}
-     * Suggest recipes based on user's inventory
-     * Prioritizes items expiring soon
-     */
-    @PostMapping("/suggest")
-    public ResponseEntity<List<RecipeResponse>> suggestRecipes(
-            @RequestParam Long userId,
-            @RequestBody RecipeSuggestRequest request) {
-        return ResponseEntity.ok(recipeService.suggestRecipes(userId, request));
-    }
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
-    /**
-     * POST /recipes/search?userId={userId}
-     * Search recipes by query, cuisine, diet, etc.
-     */
-    @PostMapping("/search")
-    public ResponseEntity<List<RecipeResponse>> searchRecipes(
-            @RequestParam Long userId,
-            @RequestBody RecipeSearchRequest request) {
-        return ResponseEntity.ok(recipeService.searchRecipes(userId, request));
-    }
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
 
-    /**
-     * GET /recipes/{spoonacularId}?userId={userId}
-     * Get detailed recipe information
-     */
-    @GetMapping("/{spoonacularId}")
-    public ResponseEntity<RecipeResponse> getRecipeDetails(
-            @PathVariable Long spoonacularId,
-            @RequestParam Long userId) {
-        return ResponseEntity.ok(recipeService.getRecipeDetails(spoonacularId));
-    }
+    private final RecipeService recipeService;
 
     /**
      * POST /recipes/save?userId={userId}&spoonacularId={spoonacularId}
@@ -61,21 +36,48 @@ public class RecipeController {
     }
 
     /**
-     * GET /recipes/saved?userId={userId}
-     * Get all saved recipes for a user
+     * GET /recipes/saved?userId={userId}&cursor={cursor}&limit={limit}&view={full|summary}
+     * Get a user's saved recipes, newest first
+     * view=summary leaves out summary, instructions and ingredient lists (see GET /recipes/saved/{id})
+     * When there are more, the X-Next-Cursor header holds the cursor for the next page
      */
     @GetMapping("/saved")
-    public ResponseEntity<List<RecipeResponse>> getSavedRecipes(@RequestParam Long userId) {
-        return ResponseEntity.ok(recipeService.getSavedRecipes(userId));
+    public ResponseEntity<? extends List<?>> getSavedRecipes(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (VIEW_SUMMARY.equals(view)) {
+            return page(recipeService.getSavedRecipeSummaries(userId, cursor, limit));
+        }
+        return page(recipeService.getSavedRecipes(userId, cursor, limit));
+    }
+
+    /**
+     * GET /recipes/saved/{id}?userId={userId}
+     * Get one saved recipe in full
+     */
+    @GetMapping("/saved/{id}")
+    public ResponseEntity<RecipeResponse> getSavedRecipe(
+            @PathVariable Long id,
+            @RequestParam Long userId) {
+        return ResponseEntity.ok(recipeService.getSavedRecipe(userId, id));
     }
 
     /**
-     * GET /recipes/cooked?userId={userId}
-     * Get all cooked recipes for a user
+     * GET /recipes/cooked?userId={userId}&cursor={cursor}&limit={limit}&view={full|summary}
+     * Get a user's cooked recipes, paginated like /saved
      */
     @GetMapping("/cooked")
-    public ResponseEntity<List<RecipeResponse>> getCookedRecipes(@RequestParam Long userId) {
-        return ResponseEntity.ok(recipeService.getCookedRecipes(userId));
+    public ResponseEntity<? extends List<?>> getCookedRecipes(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (VIEW_SUMMARY.equals(view)) {
+            return page(recipeService.getCookedRecipeSummaries(userId, cursor, limit));
+        }
+        return page(recipeService.getCookedRecipes(userId, cursor, limit));
     }
 
     /**
@@ -83,7 +85,7 @@ public class RecipeController {
      * Mark a recipe as cooked and optionally deduct ingredients from inventory
      */
     @PostMapping("/mark-as-cooked")
-    public ResponseEntity<RecipeResponse> markAsCooked(
+    public ResponseEntity<MarkAsCookedResponse> markAsCooked(
             @RequestParam Long userId,
             @RequestBody MarkAsCookedRequest request) {
         return ResponseEntity.ok(recipeService.markAsCooked(userId, request));
@@ -100,4 +102,12 @@ public class RecipeController {
         recipeService.deleteRecipe(userId, recipeId);
         return ResponseEntity.noContent().build();
     }
+
+    private static <T> ResponseEntity<List<T>> page(SavedRecipePage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRecipes());
+    }
 }
@@ -0,0 +1,83 @@
+package com.wasteless.backend.controller;
+
+import com.wasteless.backend.dto.recipe.RecipeResponse;
+import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
+import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.dto.recipe.RecipeSuggestStreamEvent;
+import com.wasteless.backend.service.RecipeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recipe search, suggestions and details, answered on the request thread (the default)
+ * See {@link ReactiveRecipeLookupController} for recipe.reactive.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/v1/recipes")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipe.reactive.enabled", havingValue = "false", matchIfMissing = true)
+public class RecipeLookupController {
+
+    private final RecipeService recipeService;
+
+    /**
+     * POST /recipes/suggest?userId={userId}
+     * Suggest recipes based on user's inventory
+     * Prioritizes items expiring soon
+     */
+    @PostMapping("/suggest")
+    public ResponseEntity<List<RecipeResponse>> suggestRecipes(
+            @RequestParam Long userId,
+            @RequestBody RecipeSuggestRequest request) {
+        return ResponseEntity.ok(recipeService.suggestRecipes(userId, request));
+    }
+
+    /**
+     * POST /recipes/suggest/stream?userId={userId}
+     * Same as /suggest, streamed as Server-Sent Events: one "recipe" event per recipe as soon as it resolves,
+     * then a "summary" event
+     */
+    @PostMapping(value = "/suggest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> suggestRecipesStream(
+            @RequestParam Long userId,
+            @RequestBody RecipeSuggestRequest request) {
+        return toServerSentEvents(recipeService.suggestRecipesStream(userId, request));
+    }
+
+    /**
+     * POST /recipes/search?userId={userId}
+     * Search recipes by query, cuisine, diet, etc.
+     */
+    @PostMapping("/search")
+    public ResponseEntity<List<RecipeResponse>> searchRecipes(
+            @RequestParam Long userId,
+            @RequestBody RecipeSearchRequest request) {
+        return ResponseEntity.ok(recipeService.searchRecipes(userId, request));
+    }
+
+    /**
+     * GET /recipes/{spoonacularId}?userId={userId}
+     * Get detailed recipe information
+     */
+    @GetMapping("/{spoonacularId}")
+    public ResponseEntity<RecipeResponse> getRecipeDetails(
+            @PathVariable Long spoonacularId,
+            @RequestParam Long userId) {
+        return ResponseEntity.ok(recipeService.getRecipeDetails(spoonacularId));
+    }
+
+    static Flux<ServerSentEvent<Object>> toServerSentEvents(Flux<RecipeSuggestStreamEvent> events) {
+        return events.map(event -> ServerSentEvent.builder()
+                .event(event.getType().name().toLowerCase(Locale.ROOT))
+                .data(event.getType() == RecipeSuggestStreamEvent.Type.RECIPE ? event.getRecipe() : event.getSummary())
+                .build());
+    }
+}
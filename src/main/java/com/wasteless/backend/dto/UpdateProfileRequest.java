@@ -13,5 +13,6 @@ public class UpdateProfileRequest {
     private String fullName;
     private String email;
     private String phone;
-    private String profilePicture; // Base64 encoded image
+    private String profilePictureHash; // Hash of a picture uploaded through POST /images
+    private String profilePicture; // Base64 encoded image or URL
 }
@@ -0,0 +1,21 @@
+package com.wasteless.backend.dto.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A stored image; pass the hash as imageHash / profilePictureHash to attach it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageUploadResponse {
+    private String hash; // SHA-256 of the image bytes
+    private String url;
+    private String thumbnailUrl;
+    private String contentType;
+    private long size;
+}
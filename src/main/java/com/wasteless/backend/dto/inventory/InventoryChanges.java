@@ -0,0 +1,14 @@
+package com.wasteless.backend.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class InventoryChanges {
+    private List<InventoryResponse> upserts; // Items added or changed since the cursor
+    private List<Long> deletions; // Ids of items deleted since the cursor
+    private String cursor; // Pass as since on the next sync
+}
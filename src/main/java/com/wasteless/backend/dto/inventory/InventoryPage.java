@@ -0,0 +1,13 @@
+package com.wasteless.backend.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class InventoryPage {
+    private List<InventorySummaryResponse> items;
+    private String nextCursor; // null on the last page
+}
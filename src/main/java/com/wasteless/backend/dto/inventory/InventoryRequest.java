@@ -28,6 +28,7 @@ public class InventoryRequest {
     private LocalDate dateOpened;
     private Integer daysUntilSpoilage;
 
-    // Image (Base64 encoded or URL)
+    // Image: the hash of an image uploaded through POST /images, or imageUrl (base64 encoded or URL)
+    private String imageHash;
     private String imageUrl;
 }
@@ -1,5 +1,6 @@
 package com.wasteless.backend.dto.inventory;
 
+import com.wasteless.backend.service.image.ImageStore;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -33,6 +34,7 @@ public class InventoryResponse {
 
     // Image
     private String imageUrl;
+    private String thumbnailUrl;
 
     // Helper method to compute days left
     public static InventoryResponse fromEntity(com.wasteless.backend.model.InventoryItem item) {
@@ -58,7 +60,8 @@ public class InventoryResponse {
                 .isOpened(item.getIsOpened())
                 .dateOpened(item.getDateOpened())
                 .daysUntilSpoilage(item.getDaysUntilSpoilage())
-                .imageUrl(item.getImageUrl())
+                .imageUrl(ImageStore.url(item.getImageHash(), item.getImageUrl()))
+                .thumbnailUrl(ImageStore.thumbnailUrl(item.getImageHash(), item.getImageUrl()))
                 .build();
     }
 }
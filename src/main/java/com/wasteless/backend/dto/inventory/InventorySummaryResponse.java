@@ -0,0 +1,68 @@
+package com.wasteless.backend.dto.inventory;
+
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.service.image.ImageStore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * List-view form of an inventory item: the image only as a thumbnail URL, for images in the image store
+ * Read directly by the listing query, so the legacy image column is never loaded
+ */
+@Data
+@NoArgsConstructor
+public class InventorySummaryResponse {
+    private Long id;
+    private String name;
+    private int quantity;
+    private String unit;
+    private String category;
+    private LocalDate purchaseDate;
+    private LocalDate expiryDate;
+    private String storageLocation;
+    private Double estimatedValue;
+    private long daysUntilExpiry;
+
+    // Package information
+    private Integer packageSize;
+    private String packageUnit;
+
+    // Spoilage tracking
+    private Boolean spoilsAfterOpening;
+    private Boolean isOpened;
+    private LocalDate dateOpened;
+    private Integer daysUntilSpoilage;
+
+    private InventoryItem.ItemStatus status;
+
+    private String thumbnailUrl;
+
+    public InventorySummaryResponse(Long id, String name, int quantity, String unit, String category,
+                                    LocalDate purchaseDate, LocalDate expiryDate, String storageLocation,
+                                    Double estimatedValue, Integer packageSize, String packageUnit,
+                                    Boolean spoilsAfterOpening, Boolean isOpened, LocalDate dateOpened,
+                                    Integer daysUntilSpoilage, InventoryItem.ItemStatus status, String imageHash) {
+        this.id = id;
+        this.name = name;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.category = category;
+        this.purchaseDate = purchaseDate;
+        this.expiryDate = expiryDate;
+        this.storageLocation = storageLocation;
+        this.estimatedValue = estimatedValue;
+        this.daysUntilExpiry = expiryDate != null ? ChronoUnit.DAYS.between(LocalDate.now(), expiryDate) : 0;
+        this.packageSize = packageSize;
+        this.packageUnit = packageUnit;
+        this.spoilsAfterOpening = spoilsAfterOpening;
+        this.isOpened = isOpened;
+        this.dateOpened = dateOpened;
+        this.daysUntilSpoilage = daysUntilSpoilage;
+        // Items saved before the status column existed have none; they are still in the inventory
+        this.status = status != null ? status : InventoryItem.ItemStatus.ACTIVE;
+        this.thumbnailUrl = ImageStore.thumbnailUrl(imageHash, null);
+    }
+}
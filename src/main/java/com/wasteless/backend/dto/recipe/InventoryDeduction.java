@@ -0,0 +1,27 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What marking a recipe as cooked did to one inventory item
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryDeduction {
+
+    public enum Outcome {
+        DECREMENTED, // Quantity reduced, item still in inventory
+        REMOVED,     // Last unit used, item deleted
+        NOT_FOUND    // No such item (e.g. already removed on another device)
+    }
+
+    private Long itemId;
+    private String name;
+    private Outcome outcome;
+    private Integer remainingQuantity; // Only for DECREMENTED
+}
@@ -0,0 +1,22 @@
+package com.wasteless.backend.dto.recipe;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The cooked recipe (same fields as RecipeResponse, at the top level) plus the per-item inventory outcome
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarkAsCookedResponse {
+    @JsonUnwrapped
+    private RecipeResponse recipe;
+    private List<InventoryDeduction> inventoryUpdates;
+}
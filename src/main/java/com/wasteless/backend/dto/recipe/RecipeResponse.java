@@ -1,6 +1,7 @@
 package com.wasteless.backend.dto.recipe;
 
 import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.model.SavedRecipe;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -31,9 +32,13 @@ public class RecipeResponse {
     private LocalDateTime cookedAt;
     private LocalDateTime savedAt;
 
-    public static RecipeResponse fromEntity(Recipe recipe) {
+    /**
+     * Saved recipe: id is the saved-recipe id, catalog fields come from the shared recipe
+     */
+    public static RecipeResponse fromEntity(SavedRecipe savedRecipe) {
+        Recipe recipe = savedRecipe.getRecipe();
         return RecipeResponse.builder()
-                .id(recipe.getId())
+                .id(savedRecipe.getId())
                 .spoonacularId(recipe.getSpoonacularId())
                 .title(recipe.getTitle())
                 .image(recipe.getImage())
@@ -42,13 +47,13 @@ public class RecipeResponse {
                 .summary(recipe.getSummary())
                 .instructions(recipe.getInstructions())
                 .ingredients(recipe.getIngredients())
-                .usedIngredients(recipe.getUsedIngredients())
-                .missedIngredients(recipe.getMissedIngredients())
-                .usedIngredientCount(recipe.getUsedIngredientCount())
-                .missedIngredientCount(recipe.getMissedIngredientCount())
-                .isCooked(recipe.getIsCooked())
-                .cookedAt(recipe.getCookedAt())
-                .savedAt(recipe.getSavedAt())
+                .usedIngredients(savedRecipe.getUsedIngredients())
+                .missedIngredients(savedRecipe.getMissedIngredients())
+                .usedIngredientCount(savedRecipe.getUsedIngredientCount())
+                .missedIngredientCount(savedRecipe.getMissedIngredientCount())
+                .isCooked(savedRecipe.getIsCooked())
+                .cookedAt(savedRecipe.getCookedAt())
+                .savedAt(savedRecipe.getSavedAt())
                 .build();
     }
 }
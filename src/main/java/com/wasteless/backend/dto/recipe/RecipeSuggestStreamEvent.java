@@ -0,0 +1,29 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One event of a streamed suggestion request: either a resolved recipe or the closing summary
+ */
+@Data
+@AllArgsConstructor
+public class RecipeSuggestStreamEvent {
+
+    public enum Type {
+        RECIPE,
+        SUMMARY
+    }
+
+    private Type type;
+    private RecipeResponse recipe;
+    private RecipeSuggestSummary summary;
+
+    public static RecipeSuggestStreamEvent recipe(RecipeResponse recipe) {
+        return new RecipeSuggestStreamEvent(Type.RECIPE, recipe, null);
+    }
+
+    public static RecipeSuggestStreamEvent summary(RecipeSuggestSummary summary) {
+        return new RecipeSuggestStreamEvent(Type.SUMMARY, null, summary);
+    }
+}
@@ -0,0 +1,18 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Final event of a streamed suggestion request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeSuggestSummary {
+    private Integer recipeCount; // Recipes sent in this stream
+    private Integer filteredByMaxMissing; // Spoonacular candidates dropped for exceeding maxMissingIngredients
+}
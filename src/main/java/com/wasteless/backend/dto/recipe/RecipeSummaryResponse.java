@@ -0,0 +1,30 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view form of a saved recipe: no summary, instructions or ingredient lists
+ * The full recipe is available from GET /recipes/saved/{id}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeSummaryResponse {
+    private Long id; // Saved recipe id
+    private Long spoonacularId;
+    private String title;
+    private String image;
+    private Integer readyInMinutes;
+    private Integer servings;
+    private Integer usedIngredientCount;
+    private Integer missedIngredientCount;
+    private Boolean isCooked;
+    private LocalDateTime cookedAt;
+    private LocalDateTime savedAt;
+}
@@ -0,0 +1,13 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SavedRecipePage<T> {
+    private List<T> recipes;
+    private String nextCursor; // null on the last page
+}
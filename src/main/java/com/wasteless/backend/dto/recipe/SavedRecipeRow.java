@@ -0,0 +1,29 @@
+package com.wasteless.backend.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of a saved recipe joined with its catalog row, read in one query
+ * The ingredient lists are loaded separately for the whole page
+ */
+@Data
+@AllArgsConstructor
+public class SavedRecipeRow {
+    private Long id; // Saved recipe id
+    private Long recipeId; // Catalog recipe id
+    private Long spoonacularId;
+    private String title;
+    private String image;
+    private Integer readyInMinutes;
+    private Integer servings;
+    private String summary;
+    private String instructions;
+    private Integer usedIngredientCount;
+    private Integer missedIngredientCount;
+    private Boolean isCooked;
+    private LocalDateTime cookedAt;
+    private LocalDateTime savedAt;
+}
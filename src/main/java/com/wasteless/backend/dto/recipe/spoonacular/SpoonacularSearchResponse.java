@@ -0,0 +1,19 @@
+package com.wasteless.backend.dto.recipe.spoonacular;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SpoonacularSearchResponse {
+    private List<SpoonacularRecipe> results;
+    private int offset;
+    private int number;
+    private int totalResults;
+}
@@ -0,0 +1,7 @@
+package com.wasteless.backend.event;
+
+/**
+ * Published whenever a user's inventory items are added, changed or removed
+ */
+public record InventoryChangedEvent(Long userId) {
+}
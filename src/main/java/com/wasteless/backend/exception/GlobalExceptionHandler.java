@@ -24,8 +24,11 @@ public class GlobalExceptionHandler {
         // Determine status code based on error message
         HttpStatus status = HttpStatus.BAD_REQUEST;
 
-        if (ex.getMessage().contains("already saved") ||
-                ex.getMessage().contains("already exists")) {
+        if (ex instanceof SpoonacularQuotaExceededException) {
+            status = HttpStatus.TOO_MANY_REQUESTS; // 429
+        } else if (ex.getMessage().contains("already saved") ||
+                ex.getMessage().contains("already exists") ||
+                ex.getMessage().contains("modified concurrently")) {
             status = HttpStatus.CONFLICT; // 409
         } else if (ex.getMessage().contains("not found")) {
             status = HttpStatus.NOT_FOUND; // 404
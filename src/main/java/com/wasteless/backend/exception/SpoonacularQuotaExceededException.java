@@ -0,0 +1,12 @@
+package com.wasteless.backend.exception;
+
+/**
+ * Thrown instead of calling Spoonacular when the daily point quota is used up
+ * or the local token bucket cannot admit the call within the configured wait.
+ */
+public class SpoonacularQuotaExceededException extends RuntimeException {
+
+    public SpoonacularQuotaExceededException(String message) {
+        super(message);
+    }
+}
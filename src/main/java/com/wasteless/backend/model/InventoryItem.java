@@ -3,6 +3,7 @@ package com.wasteless.backend.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,11 +13,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "inventory_items")
+// Serve the listing query (one user's items with a given status, in expiry order)
+// and the delta sync query (one user's items changed after a version)
+@Table(name = "inventory_items",
+        indexes = {
+                @Index(name = "idx_inventory_items_user_status_expiry", columnList = "user_id, status, expiry_date, id"),
+                @Index(name = "idx_inventory_items_user_sync_version", columnList = "user_id, sync_version")
+        })
 public class InventoryItem {
 
+    // Pooled sequence rather than IDENTITY, so inserts can be JDBC-batched (allocationSize matches hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_items_seq")
+    @SequenceGenerator(name = "inventory_items_seq", sequenceName = "inventory_items_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -39,11 +48,16 @@ public class InventoryItem {
     private LocalDate dateOpened;
     private Integer daysUntilSpoilage;
 
-    // Image
+    // Image: the hash of an image in the image store, or an external URL
+    // Inline base64 images used to be kept in imageUrl; ImageMigration moves them to the store
+    @Column(length = 64)
+    private String imageHash;
+
     @Column(columnDefinition = "TEXT")
-    private String imageUrl; // Base64 encoded image or URL
+    private String imageUrl; // External image URL
 
     @Enumerated(EnumType.STRING)
+    @Builder.Default
     private ItemStatus status = ItemStatus.ACTIVE; // Default to ACTIVE
 
     private LocalDateTime consumedAt; // When item was marked as eaten/wasted
@@ -55,6 +69,17 @@ public class InventoryItem {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Optimistic lock, so concurrent quantity changes from two devices can't overwrite each other
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Inventory version of the change that last touched the item (see InventoryVersionService);
+    // null for items not changed since delta sync was introduced
+    @JsonIgnore
+    private Long syncVersion;
+
     public enum ItemStatus {
         ACTIVE,   // Still in inventory
         EATEN,    // Successfully consumed
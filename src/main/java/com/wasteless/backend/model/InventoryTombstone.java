@@ -0,0 +1,37 @@
+package com.wasteless.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted inventory item, so delta sync can tell clients to drop their copy
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+// Serves the delta sync query: one user's deletions after a version
+@Table(name = "inventory_tombstones",
+        indexes = @Index(name = "idx_inventory_tombstones_user_sync_version", columnList = "user_id, sync_version"))
+public class InventoryTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    // Inventory version of the change that deleted the item
+    @Column(name = "sync_version", nullable = false)
+    private long syncVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,24 @@
+package com.wasteless.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user counter bumped on every inventory change, served as the ETag of the inventory list endpoints
+ * Users whose inventory never changed have no row and are at version 0.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "inventory_versions")
+public class InventoryVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,38 @@
+package com.wasteless.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Suggestions computed off-peak for a user with items about to expire
+ * Served instead of a live suggestion call while the user's inventory fingerprint still matches.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "precomputed_suggestions")
+public class PrecomputedSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", unique = true, nullable = false)
+    private User user;
+
+    // RecipeSuggestionCache fingerprint of the inventory and settings the suggestions were computed for
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String fingerprint;
+
+    // JSON array of RecipeResponse
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
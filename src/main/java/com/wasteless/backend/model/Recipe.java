@@ -3,10 +3,13 @@ package com.wasteless.backend.model;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Shared recipe catalog: one row per Spoonacular recipe, whoever saved it.
+ * Per-user state (saved/cooked, used/missed ingredients) lives in {@link SavedRecipe}.
+ */
 @Entity
 @Data
 @NoArgsConstructor
@@ -19,7 +22,7 @@ public class Recipe {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "spoonacular_id", unique = true)
+    @Column(name = "spoonacular_id", unique = true, nullable = false)
     private Long spoonacularId; // ID from Spoonacular API
 
     private String title;
@@ -42,33 +45,4 @@ public class Recipe {
     @CollectionTable(name = "recipe_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "ingredient")
     private List<String> ingredients = new ArrayList<>();
-
-    @ElementCollection
-    @CollectionTable(name = "recipe_used_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
-    @Column(name = "used_ingredient")
-    private List<String> usedIngredients = new ArrayList<>(); // Ingredients user has
-
-    @ElementCollection
-    @CollectionTable(name = "recipe_missed_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
-    @Column(name = "missed_ingredient")
-    private List<String> missedIngredients = new ArrayList<>(); // Ingredients user needs
-
-    @Column(name = "used_ingredient_count")
-    private Integer usedIngredientCount = 0;
-
-    @Column(name = "missed_ingredient_count")
-    private Integer missedIngredientCount = 0;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
-    private User user;
-
-    @Column(name = "saved_at")
-    private LocalDateTime savedAt;
-
-    @Column(name = "cooked_at")
-    private LocalDateTime cookedAt;
-
-    @Column(name = "is_cooked")
-    private Boolean isCooked = false;
 }
@@ -0,0 +1,64 @@
+package com.wasteless.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's saved copy of a catalog {@link Recipe}
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "saved_recipes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_saved_recipes_user_recipe", columnNames = {"user_id", "recipe_id"}),
+        indexes = @Index(name = "idx_saved_recipes_user_saved_at", columnList = "user_id, saved_at, id"))
+public class SavedRecipe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "recipe_id", nullable = false)
+    private Recipe recipe;
+
+    @ElementCollection
+    @CollectionTable(name = "saved_recipe_used_ingredients", joinColumns = @JoinColumn(name = "saved_recipe_id"))
+    @Column(name = "used_ingredient")
+    @Builder.Default
+    private List<String> usedIngredients = new ArrayList<>(); // Ingredients user has
+
+    @ElementCollection
+    @CollectionTable(name = "saved_recipe_missed_ingredients", joinColumns = @JoinColumn(name = "saved_recipe_id"))
+    @Column(name = "missed_ingredient")
+    @Builder.Default
+    private List<String> missedIngredients = new ArrayList<>(); // Ingredients user needs
+
+    @Column(name = "used_ingredient_count")
+    @Builder.Default
+    private Integer usedIngredientCount = 0;
+
+    @Column(name = "missed_ingredient_count")
+    @Builder.Default
+    private Integer missedIngredientCount = 0;
+
+    @Column(name = "saved_at")
+    private LocalDateTime savedAt;
+
+    @Column(name = "cooked_at")
+    private LocalDateTime cookedAt;
+
+    @Column(name = "is_cooked")
+    @Builder.Default
+    private Boolean isCooked = false;
+}
@@ -36,8 +36,12 @@ public class User implements UserDetails {
 
     private String phone;
 
+    // Hash of the picture in the image store; inline base64 pictures used to be kept in profilePicture
+    @Column(length = 64)
+    private String profilePictureHash;
+
     @Column(columnDefinition = "TEXT")
-    private String profilePicture; // Store as base64 or URL
+    private String profilePicture; // External picture URL
 
     private String role = "USER"; //Default role for now
 
@@ -2,17 +2,31 @@ package com.wasteless.backend.repository;
 
 import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface InventoryRepository extends JpaRepository<InventoryItem, Long> {
+public interface InventoryRepository extends JpaRepository<InventoryItem, Long>, InventoryRepositoryCustom {
     List<InventoryItem> findByUser(User user);
 
+    // Items changed after a delta sync cursor, in the order they changed
+    @Query("SELECT i FROM InventoryItem i WHERE i.user = :user AND i.syncVersion > :since ORDER BY i.syncVersion, i.id")
+    List<InventoryItem> findChangedSince(@Param("user") User user, @Param("since") long since);
+
+    // Items whose imageUrl may still hold an inline image, copied or not, in id order for ImageMigration
+    @Query("SELECT i FROM InventoryItem i WHERE i.imageUrl IS NOT NULL AND i.id > :after ORDER BY i.id")
+    List<InventoryItem> findWithLegacyImageAfter(@Param("after") Long after, Limit limit);
+
+    // Every stored image an item points at, for ImageSweepJob
+    @Query("SELECT DISTINCT i.imageHash FROM InventoryItem i WHERE i.imageHash IS NOT NULL")
+    List<String> findImageHashes();
+
     // Find items expiring between two dates for a specific user
     @Query("SELECT i FROM InventoryItem i WHERE i.user = :user AND i.expiryDate BETWEEN :startDate AND :endDate ORDER BY i.expiryDate ASC")
     List<InventoryItem> findByUserAndExpiryDateBetween(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
@@ -21,6 +35,11 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, Long>
     @Query("SELECT i FROM InventoryItem i WHERE i.user = :user AND i.expiryDate <= :date ORDER BY i.expiryDate ASC")
     List<InventoryItem> findByUserAndExpiryDateBefore(@Param("user") User user, @Param("date") LocalDate date);
 
+    // Find a user's ACTIVE items among the given ids
+    @Query("SELECT i FROM InventoryItem i WHERE i.user = :user AND i.id IN :ids " +
+            "AND i.status = com.wasteless.backend.model.InventoryItem.ItemStatus.ACTIVE")
+    List<InventoryItem> findActiveByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
     // Find items by user and status
     List<InventoryItem> findByUserAndStatus(User user, InventoryItem.ItemStatus status);
 
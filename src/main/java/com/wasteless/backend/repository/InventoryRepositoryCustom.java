@@ -0,0 +1,28 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.dto.inventory.InventorySummaryResponse;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Listing queries for {@link InventoryRepository}: soonest expiry first (undated items last),
+ * keyset-paginated on (expiryDate, id). category / storageLocation = null match any.
+ */
+public interface InventoryRepositoryCustom {
+
+    List<InventorySummaryResponse> findSummaries(User user, InventoryItem.ItemStatus status, String category,
+                                                 String storageLocation, Limit limit);
+
+    List<InventorySummaryResponse> findSummariesAfter(User user, InventoryItem.ItemStatus status, String category,
+                                                      String storageLocation, LocalDate expiryDate, Long id,
+                                                      Limit limit);
+
+    // Next page once the cursor is among the undated items
+    List<InventorySummaryResponse> findUndatedSummariesAfter(User user, InventoryItem.ItemStatus status,
+                                                             String category, String storageLocation, Long id,
+                                                             Limit limit);
+}
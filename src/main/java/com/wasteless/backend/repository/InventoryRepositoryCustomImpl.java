@@ -0,0 +1,84 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.dto.inventory.InventorySummaryResponse;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only the filters that were given end up in the query, so each combination gets a plain equality
+ * predicate the planner can match against idx_inventory_items_user_status_expiry, rather than
+ * ":param IS NULL OR ..." which it has to plan for both cases.
+ */
+class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final String SELECT_SUMMARIES =
+            "SELECT new com.wasteless.backend.dto.inventory.InventorySummaryResponse(i.id, i.name, i.quantity, i.unit, " +
+            "i.category, i.purchaseDate, i.expiryDate, i.storageLocation, i.estimatedValue, i.packageSize, i.packageUnit, " +
+            "i.spoilsAfterOpening, i.isOpened, i.dateOpened, i.daysUntilSpoilage, i.status, i.imageHash) " +
+            "FROM InventoryItem i " +
+            "WHERE i.user = :user AND i.status = :status";
+
+    private static final String ORDER_BY = " ORDER BY i.expiryDate ASC NULLS LAST, i.id ASC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InventorySummaryResponse> findSummaries(User user, InventoryItem.ItemStatus status, String category,
+                                                        String storageLocation, Limit limit) {
+        return query(user, status, category, storageLocation, "", Map.of(), limit);
+    }
+
+    @Override
+    public List<InventorySummaryResponse> findSummariesAfter(User user, InventoryItem.ItemStatus status,
+                                                             String category, String storageLocation,
+                                                             LocalDate expiryDate, Long id, Limit limit) {
+        return query(user, status, category, storageLocation,
+                " AND (i.expiryDate > :expiryDate OR (i.expiryDate = :expiryDate AND i.id > :id) OR i.expiryDate IS NULL)",
+                Map.of("expiryDate", expiryDate, "id", id), limit);
+    }
+
+    @Override
+    public List<InventorySummaryResponse> findUndatedSummariesAfter(User user, InventoryItem.ItemStatus status,
+                                                                    String category, String storageLocation, Long id,
+                                                                    Limit limit) {
+        return query(user, status, category, storageLocation,
+                " AND i.expiryDate IS NULL AND i.id > :id", Map.of("id", id), limit);
+    }
+
+    private List<InventorySummaryResponse> query(User user, InventoryItem.ItemStatus status, String category,
+                                                 String storageLocation, String keyset, Map<String, Object> keysetParams,
+                                                 Limit limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARIES);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("user", user);
+        params.put("status", status);
+        if (category != null) {
+            jpql.append(" AND i.category = :category");
+            params.put("category", category);
+        }
+        if (storageLocation != null) {
+            jpql.append(" AND i.storageLocation = :storageLocation");
+            params.put("storageLocation", storageLocation);
+        }
+        jpql.append(keyset).append(ORDER_BY);
+        params.putAll(keysetParams);
+
+        TypedQuery<InventorySummaryResponse> query = entityManager.createQuery(jpql.toString(),
+                InventorySummaryResponse.class);
+        params.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.model.InventoryTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryTombstoneRepository extends JpaRepository<InventoryTombstone, Long> {
+
+    @Query("SELECT t.itemId FROM InventoryTombstone t WHERE t.userId = :userId AND t.syncVersion > :since ORDER BY t.syncVersion, t.itemId")
+    List<Long> findItemIdsDeletedSince(@Param("userId") Long userId, @Param("since") long since);
+}
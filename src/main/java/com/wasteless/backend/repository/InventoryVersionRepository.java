@@ -0,0 +1,22 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.model.InventoryVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InventoryVersionRepository extends JpaRepository<InventoryVersion, Long> {
+
+    @Query("SELECT v.version FROM InventoryVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+
+    // Atomic in the database, so concurrent bumps never lose an increment
+    @Modifying
+    @Query("UPDATE InventoryVersion v SET v.version = v.version + 1 WHERE v.userId = :userId")
+    int increment(@Param("userId") Long userId);
+}
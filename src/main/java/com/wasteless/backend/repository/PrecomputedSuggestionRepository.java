@@ -0,0 +1,12 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.model.PrecomputedSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PrecomputedSuggestionRepository extends JpaRepository<PrecomputedSuggestion, Long> {
+    Optional<PrecomputedSuggestion> findByUserId(Long userId);
+}
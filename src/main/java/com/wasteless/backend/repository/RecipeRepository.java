@@ -1,25 +1,25 @@
 package com.wasteless.backend.repository;
 
 import com.wasteless.backend.model.Recipe;
-import com.wasteless.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
-    // Find all recipes saved by a user
-    List<Recipe> findByUser(User user);
+    // Find the catalog entry for a Spoonacular recipe
+    Optional<Recipe> findBySpoonacularId(Long spoonacularId);
 
-    // Find all cooked recipes by a user
-    List<Recipe> findByUserAndIsCooked(User user, Boolean isCooked);
+    // Load every stored recipe with its ingredient lines in one query (used to build the ingredient index)
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients")
+    List<Recipe> findAllWithIngredients();
 
-    // Find a specific recipe by Spoonacular ID and user
-    Optional<Recipe> findByUserAndSpoonacularId(User user, Long spoonacularId);
-
-    // Check if user has already saved a recipe from Spoonacular
-    boolean existsByUserAndSpoonacularId(User user, Long spoonacularId);
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients WHERE r.id IN :ids")
+    List<Recipe> findAllWithIngredientsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.model.SavedRecipe;
+import com.wasteless.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedRecipeRepository extends JpaRepository<SavedRecipe, Long>, SavedRecipeRepositoryCustom {
+
+    // Check if user has already saved a recipe from Spoonacular
+    boolean existsByUserAndRecipeSpoonacularId(User user, Long spoonacularId);
+
+    // Ingredient lists for a page of rows, one query per list: [owner id, value]
+    @Query("SELECT r.id, i FROM Recipe r JOIN r.ingredients i WHERE r.id IN :ids")
+    List<Object[]> findIngredientsByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id, u FROM SavedRecipe s JOIN s.usedIngredients u WHERE s.id IN :ids")
+    List<Object[]> findUsedIngredientsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id, m FROM SavedRecipe s JOIN s.missedIngredients m WHERE s.id IN :ids")
+    List<Object[]> findMissedIngredientsByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.dto.recipe.RecipeSummaryResponse;
+import com.wasteless.backend.dto.recipe.SavedRecipeRow;
+import com.wasteless.backend.model.User;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Listing queries for {@link SavedRecipeRepository}: newest first, keyset-paginated on (savedAt, id).
+ * cooked = true / false lists cooked / not yet cooked recipes, null every saved recipe.
+ */
+public interface SavedRecipeRepositoryCustom {
+
+    List<SavedRecipeRow> findRows(User user, Boolean cooked, Limit limit);
+
+    List<SavedRecipeRow> findRowsAfter(User user, Boolean cooked, LocalDateTime savedAt, Long id, Limit limit);
+
+    // Summary list view: catalog text columns and ingredient lists are not read at all
+    List<RecipeSummaryResponse> findSummaries(User user, Boolean cooked, Limit limit);
+
+    List<RecipeSummaryResponse> findSummariesAfter(User user, Boolean cooked, LocalDateTime savedAt, Long id,
+                                                   Limit limit);
+}
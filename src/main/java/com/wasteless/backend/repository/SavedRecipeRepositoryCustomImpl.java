@@ -0,0 +1,86 @@
+package com.wasteless.backend.repository;
+
+import com.wasteless.backend.dto.recipe.RecipeSummaryResponse;
+import com.wasteless.backend.dto.recipe.SavedRecipeRow;
+import com.wasteless.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The cooked, uncooked and all-recipes lists each get their own query text, so the planner sees a plain
+ * predicate (or none) instead of ":cooked IS NULL OR ..." which it has to plan for both cases.
+ */
+class SavedRecipeRepositoryCustomImpl implements SavedRecipeRepositoryCustom {
+
+    private static final String SELECT_ROWS =
+            "SELECT new com.wasteless.backend.dto.recipe.SavedRecipeRow(s.id, r.id, r.spoonacularId, r.title, r.image, " +
+            "r.readyInMinutes, r.servings, r.summary, r.instructions, s.usedIngredientCount, s.missedIngredientCount, " +
+            "s.isCooked, s.cookedAt, s.savedAt) " +
+            "FROM SavedRecipe s JOIN s.recipe r " +
+            "WHERE s.user = :user";
+
+    private static final String SELECT_SUMMARIES =
+            "SELECT new com.wasteless.backend.dto.recipe.RecipeSummaryResponse(s.id, r.spoonacularId, r.title, r.image, " +
+            "r.readyInMinutes, r.servings, s.usedIngredientCount, s.missedIngredientCount, s.isCooked, s.cookedAt, s.savedAt) " +
+            "FROM SavedRecipe s JOIN s.recipe r " +
+            "WHERE s.user = :user";
+
+    private static final String AFTER = " AND (s.savedAt < :savedAt OR (s.savedAt = :savedAt AND s.id < :id))";
+
+    private static final String ORDER_BY = " ORDER BY s.savedAt DESC, s.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SavedRecipeRow> findRows(User user, Boolean cooked, Limit limit) {
+        return query(SELECT_ROWS, SavedRecipeRow.class, user, cooked, null, null, limit);
+    }
+
+    @Override
+    public List<SavedRecipeRow> findRowsAfter(User user, Boolean cooked, LocalDateTime savedAt, Long id, Limit limit) {
+        return query(SELECT_ROWS, SavedRecipeRow.class, user, cooked, savedAt, id, limit);
+    }
+
+    @Override
+    public List<RecipeSummaryResponse> findSummaries(User user, Boolean cooked, Limit limit) {
+        return query(SELECT_SUMMARIES, RecipeSummaryResponse.class, user, cooked, null, null, limit);
+    }
+
+    @Override
+    public List<RecipeSummaryResponse> findSummariesAfter(User user, Boolean cooked, LocalDateTime savedAt, Long id,
+                                                          Limit limit) {
+        return query(SELECT_SUMMARIES, RecipeSummaryResponse.class, user, cooked, savedAt, id, limit);
+    }
+
+    /**
+     * @param savedAt null for the first page, otherwise the keyset cursor together with id
+     */
+    private <T> List<T> query(String select, Class<T> type, User user, Boolean cooked, LocalDateTime savedAt,
+                              Long id, Limit limit) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (cooked != null) {
+            jpql.append(cooked ? " AND s.isCooked = true" : " AND s.isCooked = false");
+        }
+        if (savedAt != null) {
+            jpql.append(AFTER);
+        }
+        jpql.append(ORDER_BY);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        query.setParameter("user", user);
+        if (savedAt != null) {
+            query.setParameter("savedAt", savedAt);
+            query.setParameter("id", id);
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+}
@@ -1,13 +1,36 @@
 package com.wasteless.backend.repository;
 
 import com.wasteless.backend.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
         Optional<User> findByEmail(String email);
         boolean existsByEmail(String email);
+
+        // Users whose profilePicture may still hold an inline image, copied or not, in id order for ImageMigration
+        @Query("SELECT u FROM User u WHERE u.profilePicture IS NOT NULL AND u.id > :after ORDER BY u.id")
+        List<User> findWithLegacyPictureAfter(@Param("after") Long after, Limit limit);
+
+        // Every stored image used as a profile picture, for ImageSweepJob
+        @Query("SELECT DISTINCT u.profilePictureHash FROM User u WHERE u.profilePictureHash IS NOT NULL")
+        List<String> findProfilePictureHashes();
+
+        // Users in id order, a page at a time, for SuggestionPrecomputeJob
+        @Query("SELECT u FROM User u WHERE u.id > :after ORDER BY u.id")
+        List<User> findAfter(@Param("after") Long after, Limit limit);
+
+        // Row lock held until commit, for work that must not run twice at once for the same user
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT u FROM User u WHERE u.id = :id")
+        Optional<User> findByIdForUpdate(@Param("id") Long id);
 }
@@ -4,6 +4,7 @@ import com.wasteless.backend.config.JwtUtil;
 import com.wasteless.backend.dto.AuthResponse;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.image.ImageStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +25,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final ImageStore imageStore;
 
     public ResponseEntity<?> register(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -34,11 +36,15 @@ public class AuthService {
         }
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
+        ImageStore.ImageRef picture = imageStore.resolve(user.getProfilePictureHash(), user.getProfilePicture());
+        user.setProfilePictureHash(picture != null ? picture.hash() : null);
+        user.setProfilePicture(picture != null ? picture.url() : null);
         User savedUser = userRepository.save(user);
 
         String token = jwtUtil.generateToken(savedUser.getEmail());
         AuthResponse response = new AuthResponse(token, savedUser.getId(), savedUser.getEmail(),
-                savedUser.getFullName(), savedUser.getPhone(), savedUser.getProfilePicture(), savedUser.isOnboardingCompleted());
+                savedUser.getFullName(), savedUser.getPhone(),
+                ImageStore.url(savedUser.getProfilePictureHash(), savedUser.getProfilePicture()), savedUser.isOnboardingCompleted());
         return ResponseEntity.ok(response);
     }
 
@@ -53,7 +59,8 @@ public class AuthService {
 
             String token = jwtUtil.generateToken(user.getEmail());
             AuthResponse response = new AuthResponse(token, user.getId(), user.getEmail(),
-                    user.getFullName(), user.getPhone(), user.getProfilePicture(), user.isOnboardingCompleted());
+                    user.getFullName(), user.getPhone(), ImageStore.url(user.getProfilePictureHash(), user.getProfilePicture()),
+                    user.isOnboardingCompleted());
 
             return ResponseEntity.ok(response);
 
@@ -2,11 +2,14 @@ package com.wasteless.backend.service;
 
 import com.wasteless.backend.dto.impact.ImpactHistoryResponse;
 import com.wasteless.backend.dto.impact.ImpactSummaryResponse;
+import com.wasteless.backend.event.InventoryChangedEvent;
 import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,6 +25,8 @@ import java.util.stream.Collectors;
 public class ImpactService {
 
     private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryVersionService inventoryVersionService;
 
     // Average CO2 emission per kg of food waste (in kg CO2)
     // Based on research: 1 kg of food waste = ~2.5 kg CO2 equivalent
@@ -237,6 +242,7 @@ public class ImpactService {
     /**
      * Update item status (mark as eaten or wasted)
      */
+    @Transactional
     public InventoryItem updateItemStatus(Long itemId, InventoryItem.ItemStatus status, Double estimatedValue) {
         InventoryItem item = inventoryRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Item not found with id: " + itemId));
@@ -248,6 +254,9 @@ public class ImpactService {
             item.setEstimatedValue(estimatedValue);
         }
 
-        return inventoryRepository.save(item);
+        inventoryVersionService.recordChanges(item.getUser().getId(), List.of(item), List.of());
+        InventoryItem saved = inventoryRepository.save(item);
+        eventPublisher.publishEvent(new InventoryChangedEvent(item.getUser().getId()));
+        return saved;
     }
 }
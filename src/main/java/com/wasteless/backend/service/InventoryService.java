@@ -1,14 +1,27 @@
 package com.wasteless.backend.service;
 
+import com.wasteless.backend.dto.inventory.InventoryChanges;
+import com.wasteless.backend.dto.inventory.InventoryPage;
 import com.wasteless.backend.dto.inventory.InventoryRequest;
 import com.wasteless.backend.dto.inventory.InventoryResponse;
+import com.wasteless.backend.dto.inventory.InventorySummaryResponse;
+import com.wasteless.backend.event.InventoryChangedEvent;
 import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.InventoryTombstoneRepository;
 import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.image.ImageStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,23 +29,162 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_ITEMS = 1000;
+
     private final InventoryRepository inventoryRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStore imageStore;
+    private final InventoryVersionService inventoryVersionService;
+    private final InventoryTombstoneRepository tombstoneRepository;
 
     public List<InventoryResponse> getAllItems(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return inventoryRepository.findByUser(user)
-                .stream()
-                .map(InventoryResponse::fromEntity)
-                .collect(Collectors.toList());
+        return toResponses(inventoryRepository.findByUser(user));
+    }
+
+    /**
+     * Get a page of a user's items, soonest expiry first, without images
+     *
+     * @param status          defaults to ACTIVE
+     * @param category        null for any
+     * @param storageLocation null for any
+     * @param cursor          nextCursor of the previous page, or null for the first page
+     * @param limit           page size, defaults to {@value #DEFAULT_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public InventoryPage listItems(Long userId, InventoryItem.ItemStatus status, String category,
+                                   String storageLocation, String cursor, Integer limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        InventoryItem.ItemStatus effectiveStatus = status != null ? status : InventoryItem.ItemStatus.ACTIVE;
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        // One extra row tells us whether there is a next page
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<InventorySummaryResponse> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = inventoryRepository.findSummaries(user, effectiveStatus, category, storageLocation, fetchLimit);
+        } else {
+            InventoryCursor after = InventoryCursor.decode(cursor);
+            rows = after.expiryDate() != null
+                    ? inventoryRepository.findSummariesAfter(user, effectiveStatus, category, storageLocation,
+                    after.expiryDate(), after.id(), fetchLimit)
+                    : inventoryRepository.findUndatedSummariesAfter(user, effectiveStatus, category, storageLocation,
+                    after.id(), fetchLimit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new InventoryPage(new ArrayList<>(rows), null);
+        }
+        List<InventorySummaryResponse> page = new ArrayList<>(rows.subList(0, pageSize));
+        InventorySummaryResponse last = page.get(page.size() - 1);
+        return new InventoryPage(page, new InventoryCursor(last.getExpiryDate(), last.getId()).encode());
+    }
+
+    /**
+     * Everything added, changed or deleted since the cursor, for clients that keep a local copy
+     * Without a cursor, all items and no deletions: the starting point for a new client.
+     * Either way the returned cursor picks up from there.
+     */
+    @Transactional(readOnly = true)
+    public InventoryChanges getChanges(Long userId, String since) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Read the version first: a change committing meanwhile is then sent again next time, never skipped
+        long version = inventoryVersionService.getVersion(userId);
+        String cursor = new SyncCursor(version).encode();
+        if (since == null) {
+            return new InventoryChanges(toResponses(inventoryRepository.findByUser(user)), List.of(), cursor);
+        }
+
+        long from = SyncCursor.decode(since).version();
+        if (from > version) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return new InventoryChanges(toResponses(inventoryRepository.findChangedSince(user, from)),
+                tombstoneRepository.findItemIdsDeletedSince(userId, from), cursor);
     }
 
+    @Transactional
     public InventoryResponse addItem(Long userId, InventoryRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        InventoryItem item = InventoryItem.builder()
+        ImageStore.ImageRef image = imageStore.resolve(request.getImageHash(), request.getImageUrl());
+        InventoryItem item = toEntity(user, request, image);
+        inventoryVersionService.recordChanges(userId, List.of(item), List.of());
+        InventoryItem saved = inventoryRepository.save(item);
+        eventPublisher.publishEvent(new InventoryChangedEvent(userId));
+        return InventoryResponse.fromEntity(saved);
+    }
+
+    /**
+     * Add many items at once, e.g. after a grocery run
+     * Every request is validated before anything is written, and all problems are reported together;
+     * the items are then inserted in one transaction as JDBC batches.
+     */
+    @Transactional
+    public List<InventoryResponse> addItems(Long userId, List<InventoryRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("No items to add");
+        }
+        if (requests.size() > MAX_BULK_ITEMS) {
+            throw new RuntimeException("Too many items, at most " + MAX_BULK_ITEMS + " per request");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            validate(requests.get(i), "Item " + (i + 1), errors);
+        }
+        if (!errors.isEmpty()) {
+            throw new RuntimeException("Invalid items: " + String.join("; ", errors));
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<InventoryItem> items = requests.stream()
+                .map(request -> toEntity(user, request, imageStore.resolve(request.getImageHash(), request.getImageUrl())))
+                .collect(Collectors.toList());
+        inventoryVersionService.recordChanges(userId, items, List.of());
+        List<InventoryItem> saved = inventoryRepository.saveAll(items);
+        eventPublisher.publishEvent(new InventoryChangedEvent(userId));
+        return saved.stream()
+                .map(InventoryResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    public InventoryResponse getItemById(Long id) {
+        InventoryItem item = inventoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Item not found"));
+        return InventoryResponse.fromEntity(item);
+    }
+
+    private static void validate(InventoryRequest request, String label, List<String> errors) {
+        if (request == null) {
+            errors.add(label + ": missing");
+            return;
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            errors.add(label + ": name is required");
+        }
+        if (request.getQuantity() < 0) {
+            errors.add(label + ": quantity must not be negative");
+        }
+        if (request.getPurchaseDate() != null && request.getExpiryDate() != null
+                && request.getExpiryDate().isBefore(request.getPurchaseDate())) {
+            errors.add(label + ": expiry date is before purchase date");
+        }
+    }
+
+    private static InventoryItem toEntity(User user, InventoryRequest request, ImageStore.ImageRef image) {
+        return InventoryItem.builder()
                 .name(request.getName())
                 .quantity(request.getQuantity())
                 .unit(request.getUnit())
@@ -47,19 +199,14 @@ public class InventoryService {
                 .isOpened(request.getIsOpened())
                 .dateOpened(request.getDateOpened())
                 .daysUntilSpoilage(request.getDaysUntilSpoilage())
-                .imageUrl(request.getImageUrl())
+                .imageHash(image != null ? image.hash() : null)
+                .imageUrl(image != null ? image.url() : null)
+                .status(InventoryItem.ItemStatus.ACTIVE)
                 .user(user)
                 .build();
-
-        return InventoryResponse.fromEntity(inventoryRepository.save(item));
-    }
-
-    public InventoryResponse getItemById(Long id) {
-        InventoryItem item = inventoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
-        return InventoryResponse.fromEntity(item);
     }
 
+    @Transactional
     public InventoryResponse updateItem(Long id, InventoryRequest request) {
         InventoryItem existing = inventoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
@@ -80,14 +227,80 @@ public class InventoryService {
         existing.setDaysUntilSpoilage(request.getDaysUntilSpoilage());
 
         // Only update image if a new one is provided
-        if (request.getImageUrl() != null && !request.getImageUrl().isEmpty()) {
-            existing.setImageUrl(request.getImageUrl());
+        ImageStore.ImageRef image = imageStore.resolve(request.getImageHash(), request.getImageUrl());
+        if (image != null) {
+            existing.setImageHash(image.hash());
+            existing.setImageUrl(image.url());
         }
 
-        return InventoryResponse.fromEntity(inventoryRepository.save(existing));
+        inventoryVersionService.recordChanges(existing.getUser().getId(), List.of(existing), List.of());
+        InventoryItem saved = inventoryRepository.save(existing);
+        eventPublisher.publishEvent(new InventoryChangedEvent(existing.getUser().getId()));
+        return InventoryResponse.fromEntity(saved);
     }
 
+    @Transactional
     public void deleteItem(Long id) {
-        inventoryRepository.deleteById(id);
+        inventoryRepository.findById(id).ifPresent(item -> {
+            inventoryVersionService.recordChanges(item.getUser().getId(), List.of(), List.of(item));
+            inventoryRepository.delete(item);
+            eventPublisher.publishEvent(new InventoryChangedEvent(item.getUser().getId()));
+        });
+    }
+
+    private static List<InventoryResponse> toResponses(List<InventoryItem> items) {
+        return items.stream()
+                .map(InventoryResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Position after the last item of a page; opaque to clients. expiryDate is null once among the undated items.
+     */
+    private record InventoryCursor(LocalDate expiryDate, Long id) {
+
+        String encode() {
+            String raw = (expiryDate != null ? expiryDate.toString() : "") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static InventoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                String date = raw.substring(0, separator);
+                return new InventoryCursor(date.isEmpty() ? null : LocalDate.parse(date),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+
+    /**
+     * Inventory version a delta sync client has caught up to; opaque to clients
+     */
+    private record SyncCursor(long version) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(("v" + version).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SyncCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (!raw.startsWith("v")) {
+                    throw new IllegalArgumentException(raw);
+                }
+                long version = Long.parseLong(raw.substring(1));
+                if (version < 0) {
+                    throw new IllegalArgumentException(raw);
+                }
+                return new SyncCursor(version);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 }
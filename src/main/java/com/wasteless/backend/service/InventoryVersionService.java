@@ -0,0 +1,85 @@
+package com.wasteless.backend.service;
+
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.InventoryTombstone;
+import com.wasteless.backend.model.InventoryVersion;
+import com.wasteless.backend.repository.InventoryTombstoneRepository;
+import com.wasteless.backend.repository.InventoryVersionRepository;
+import com.wasteless.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Monotonic per-user inventory version: the ETag of the inventory list endpoints and the clock of delta sync.
+ * <p>
+ * Every inventory mutation (InventoryService, ImpactService.updateItemStatus, RecipeService.markAsCooked) calls
+ * {@link #recordChanges} in its own transaction, so the new version commits together with the items it describes.
+ * The version row stays locked until then, which orders a user's changes: a client that has seen version N
+ * has seen every change stamped N or lower.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryVersionService {
+
+    private final InventoryVersionRepository repository;
+    private final InventoryTombstoneRepository tombstoneRepository;
+    private final UserRepository userRepository;
+
+    @Transactional(readOnly = true)
+    public long getVersion(Long userId) {
+        return repository.findVersion(userId).orElse(0L);
+    }
+
+    /**
+     * Strong ETag for the user's inventory at its current version
+     */
+    public String etag(Long userId) {
+        return "\"" + getVersion(userId) + "\"";
+    }
+
+    /**
+     * Bump the user's version, stamp the changed items with it and leave a tombstone for each deleted one
+     *
+     * @param changed items being added or updated, stamped before they are saved
+     * @param deleted items being deleted (they must already have an id)
+     * @return the new version
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long recordChanges(Long userId, Collection<InventoryItem> changed, Collection<InventoryItem> deleted) {
+        long version = next(userId);
+        changed.forEach(item -> item.setSyncVersion(version));
+
+        if (!deleted.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            tombstoneRepository.saveAll(deleted.stream()
+                    .map(item -> InventoryTombstone.builder()
+                            .userId(userId)
+                            .itemId(item.getId())
+                            .syncVersion(version)
+                            .deletedAt(now)
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+        return version;
+    }
+
+    private long next(Long userId) {
+        if (repository.increment(userId) == 0) {
+            // First change for this user: take the user row lock so only one transaction creates the counter;
+            // one that waited here finds the row once the first commits
+            userRepository.findByIdForUpdate(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (repository.increment(userId) == 0) {
+                repository.save(new InventoryVersion(userId, 1));
+                return 1;
+            }
+        }
+        return repository.findVersion(userId).orElseThrow();
+    }
+}
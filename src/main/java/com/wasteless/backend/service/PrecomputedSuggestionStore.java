@@ -0,0 +1,101 @@
+package com.wasteless.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.recipe.RecipeResponse;
+import com.wasteless.backend.model.PrecomputedSuggestion;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.PrecomputedSuggestionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the per-user precomputed_suggestions row
+ */
+@Slf4j
+@Component
+public class PrecomputedSuggestionStore {
+
+    private static final TypeReference<List<RecipeResponse>> RECIPE_LIST = new TypeReference<>() {
+    };
+
+    private final PrecomputedSuggestionRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter servedCounter;
+
+    // Older results are ignored even if the fingerprint matches, so recipe data does not go stale indefinitely
+    @Value("${recipe.suggest.precompute.max-age:36h}")
+    private Duration maxAge;
+
+    public PrecomputedSuggestionStore(PrecomputedSuggestionRepository repository,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.servedCounter = Counter.builder("recipe.suggestions.precomputed.served")
+                .description("Suggestion requests answered from precomputed results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stored suggestions for the user, if they were computed for this fingerprint and are recent enough
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<RecipeResponse>> find(Long userId, String fingerprint) {
+        return repository.findByUserId(userId)
+                .filter(stored -> stored.getFingerprint().equals(fingerprint))
+                .filter(stored -> stored.getGeneratedAt().isAfter(LocalDateTime.now().minus(maxAge)))
+                .flatMap(this::read)
+                .map(recipes -> {
+                    servedCounter.increment();
+                    return recipes;
+                });
+    }
+
+    /**
+     * True when the stored row was computed for this fingerprint within the given time
+     */
+    @Transactional(readOnly = true)
+    public boolean isFresh(Long userId, String fingerprint, Duration within) {
+        return repository.findByUserId(userId)
+                .filter(stored -> stored.getFingerprint().equals(fingerprint))
+                .filter(stored -> stored.getGeneratedAt().isAfter(LocalDateTime.now().minus(within)))
+                .isPresent();
+    }
+
+    @Transactional
+    public void save(User user, String fingerprint, List<RecipeResponse> recipes) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(recipes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing suggestions: " + e.getMessage(), e);
+        }
+
+        PrecomputedSuggestion stored = repository.findByUserId(user.getId())
+                .orElseGet(() -> PrecomputedSuggestion.builder().user(user).build());
+        stored.setFingerprint(fingerprint);
+        stored.setPayload(payload);
+        stored.setGeneratedAt(LocalDateTime.now());
+        repository.save(stored);
+    }
+
+    private Optional<List<RecipeResponse>> read(PrecomputedSuggestion stored) {
+        try {
+            return Optional.of(objectMapper.readValue(stored.getPayload(), RECIPE_LIST));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable precomputed suggestions for user {}: {}", stored.getUser().getId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
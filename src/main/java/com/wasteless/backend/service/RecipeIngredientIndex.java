@@ -0,0 +1,232 @@
+package com.wasteless.backend.service;
+
+import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index from normalized ingredient token to stored recipe ids.
+ * Built from the recipe catalog at startup and kept current as new recipes enter the catalog,
+ * so suggestions can be answered from recipes we already hold before asking Spoonacular.
+ */
+@Slf4j
+@Component
+public class RecipeIngredientIndex {
+
+    // Units, quantities and preparation words that say nothing about which ingredient a line needs
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "or", "of", "for", "the", "with", "into", "to", "taste", "plus", "more", "about", "optional",
+            "cup", "tablespoon", "tbsp", "teaspoon", "tsp", "ounce", "pound", "lbs", "gram", "kg", "ml",
+            "liter", "pinch", "dash", "can", "package", "clove", "slice", "piece", "bunch", "handful",
+            "large", "small", "medium", "whole", "fresh", "chopped", "diced", "sliced", "minced", "grated",
+            "peeled", "finely", "roughly", "thinly", "cut", "divided", "softened", "melted", "room", "temperature"
+    );
+
+    // Pantry staples (Spoonacular's ignorePantry): a line made only of these is assumed to be at hand and is
+    // neither counted as missed nor as a reason to suggest the recipe
+    private static final Set<String> PANTRY_STAPLES = Set.of(
+            "salt", "pepper", "black", "kosher", "sea", "water", "ice", "oil", "olive", "extra", "virgin", "vegetable",
+            "canola", "cooking", "spray", "sugar", "granulated", "flour", "all", "purpose", "baking", "soda", "powder"
+    );
+
+    private final RecipeRepository recipeRepository;
+
+    @Value("${recipe.suggest.local-index.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedRecipe> recipes = new ConcurrentHashMap<>();
+
+    public RecipeIngredientIndex(RecipeRepository recipeRepository, MeterRegistry meterRegistry) {
+        this.recipeRepository = recipeRepository;
+        Gauge.builder("recipe.index.recipes", recipes, Map::size)
+                .description("Stored recipes held in the local ingredient index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Recipe> stored = recipeRepository.findAllWithIngredients();
+        synchronized (this) {
+            postings.clear();
+            recipes.clear();
+            stored.forEach(this::index);
+        }
+        log.info("Recipe ingredient index built: {} recipes, {} tokens", recipes.size(), postings.size());
+    }
+
+    /**
+     * Add or replace a stored recipe in the index
+     */
+    public synchronized void index(Recipe recipe) {
+        if (!enabled || recipe.getId() == null) {
+            return;
+        }
+
+        remove(recipe.getId());
+
+        List<Set<String>> lines = new ArrayList<>();
+        List<String> originals = new ArrayList<>();
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                Set<String> tokens = tokenize(ingredient);
+                if (!tokens.isEmpty() && !PANTRY_STAPLES.containsAll(tokens)) {
+                    lines.add(tokens);
+                    originals.add(ingredient);
+                }
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        recipes.put(recipe.getId(), new IndexedRecipe(recipe.getId(), recipe.getSpoonacularId(), lines, originals));
+        lines.forEach(tokens -> tokens.forEach(token ->
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(recipe.getId())));
+    }
+
+    public synchronized void remove(Long recipeId) {
+        IndexedRecipe removed = recipes.remove(recipeId);
+        if (removed == null) {
+            return;
+        }
+
+        removed.lines().forEach(tokens -> tokens.forEach(token -> {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(recipeId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Rank stored recipes against the given inventory item names
+     * An ingredient line counts as used when it contains every token of some item name ("chicken breast" is used by
+     * an item called "chicken" but not by one called "chicken broth"), otherwise as missed. Pantry staples are left
+     * out of both. At most one match per spoonacularId is returned.
+     *
+     * @param maximizeUsed true ranks by most used ingredients first (Spoonacular ranking=1),
+     *                     false by fewest missing ingredients first (ranking=2)
+     */
+    public List<Match> findMatches(Collection<String> itemNames, int maxMissing, int limit, boolean maximizeUsed) {
+        if (!enabled || limit <= 0) {
+            return List.of();
+        }
+
+        List<Set<String>> items = new ArrayList<>();
+        Set<String> available = new HashSet<>();
+        for (String name : itemNames) {
+            Set<String> tokens = tokenize(name);
+            if (!tokens.isEmpty()) {
+                items.add(tokens);
+                available.addAll(tokens);
+            }
+        }
+
+        // Any shared token makes a candidate; the line check below decides what is actually used
+        Set<Long> candidateIds = new HashSet<>();
+        available.forEach(token -> candidateIds.addAll(postings.getOrDefault(token, Set.of())));
+
+        Map<Long, Match> bySpoonacularId = new HashMap<>();
+        for (Long recipeId : candidateIds) {
+            IndexedRecipe recipe = recipes.get(recipeId);
+            if (recipe == null) {
+                continue;
+            }
+
+            List<String> used = new ArrayList<>();
+            List<String> missed = new ArrayList<>();
+            for (int i = 0; i < recipe.lines().size(); i++) {
+                Set<String> line = recipe.lines().get(i);
+                boolean have = items.stream().anyMatch(line::containsAll);
+                (have ? used : missed).add(recipe.originals().get(i));
+            }
+
+            if (used.isEmpty() || missed.size() > maxMissing) {
+                continue;
+            }
+            Match match = new Match(recipe.recipeId(), recipe.spoonacularId(), used, missed);
+            bySpoonacularId.merge(recipe.spoonacularId() != null ? recipe.spoonacularId() : -recipeId, match,
+                    (a, b) -> a.recipeId() <= b.recipeId() ? a : b);
+        }
+
+        Comparator<Match> byUsed = Comparator.comparingInt((Match m) -> m.usedIngredients().size()).reversed();
+        Comparator<Match> byMissed = Comparator.comparingInt((Match m) -> m.missedIngredients().size());
+        Comparator<Match> order = maximizeUsed ? byUsed.thenComparing(byMissed) : byMissed.thenComparing(byUsed);
+
+        return bySpoonacularId.values().stream()
+                .sorted(order.thenComparing(Match::recipeId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Lowercase word tokens with units, preparation words and plurals normalized away
+     * e.g. "2 cups chopped Tomatoes" -> [tomato]
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^a-z]+")) {
+            String token = singularize(word);
+            if (token.length() >= 3 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String singularize(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && word.length() > 3) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private record IndexedRecipe(Long recipeId, Long spoonacularId, List<Set<String>> lines, List<String> originals) {
+    }
+
+    public record Match(Long recipeId, Long spoonacularId, List<String> usedIngredients, List<String> missedIngredients) {
+    }
+}
@@ -1,111 +1,287 @@
 package com.wasteless.backend.service;
 
-import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.config.CacheConfig;
 import com.wasteless.backend.dto.recipe.*;
 import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
+import com.wasteless.backend.event.InventoryChangedEvent;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
 import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.model.SavedRecipe;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.InventoryRepository;
 import com.wasteless.backend.repository.RecipeRepository;
+import com.wasteless.backend.repository.SavedRecipeRepository;
 import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.spoonacular.RecipeDetailsDiskCache;
+import com.wasteless.backend.service.spoonacular.SpoonacularClient;
+import com.wasteless.backend.service.spoonacular.SpoonacularSearchCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RecipeService {
 
-    private final WebClient spoonacularWebClient;
-    private final SpoonacularConfig spoonacularConfig;
+    // Max parallel /information calls when the informationBulk call fails
+    private static final int DETAIL_FETCH_CONCURRENCY = 5;
+
+    // Saved/cooked list page sizes
+    private static final int DEFAULT_SAVED_PAGE_SIZE = 50;
+    private static final int MAX_SAVED_PAGE_SIZE = 200;
+
+    private final SpoonacularClient spoonacularClient;
     private final RecipeRepository recipeRepository;
+    private final SavedRecipeRepository savedRecipeRepository;
     private final InventoryRepository inventoryRepository;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final Scheduler jpaScheduler;
+    private final RecipeIngredientIndex recipeIngredientIndex;
+    private final SpoonacularSearchCache searchCache;
+    private final RecipeSuggestionCache suggestionCache;
+    private final RecipeDetailsDiskCache recipeDetailsDiskCache;
+    private final PrecomputedSuggestionStore precomputedSuggestionStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryVersionService inventoryVersionService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Attempts for markAsCooked when an inventory item was changed concurrently
+    @Value("${recipe.mark-as-cooked.max-attempts:3}")
+    private int markAsCookedMaxAttempts;
+
+    // Base wait before a markAsCooked retry; grows with each attempt and is jittered so clashing requests spread out
+    @Value("${recipe.mark-as-cooked.retry-backoff:50ms}")
+    private Duration markAsCookedRetryBackoff;
 
     /**
      * Search recipes by query using Spoonacular API
      */
     public List<RecipeResponse> searchRecipes(Long userId, RecipeSearchRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return searchRecipes(userId, request, Schedulers.immediate()).block();
+    }
 
-        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 10;
+    /**
+     * Non-blocking variant of searchRecipes
+     * The user lookup runs on the bounded JPA scheduler, the Spoonacular call on the WebClient event loop
+     */
+    public Mono<List<RecipeResponse>> searchRecipesReactive(Long userId, RecipeSearchRequest request) {
+        return searchRecipes(userId, request, jpaScheduler);
+    }
 
-        try {
-            SpoonacularRecipe[] recipes = spoonacularWebClient.get()
-                    .uri(uriBuilder -> {
-                        uriBuilder.path("/recipes/complexSearch")
-                                .queryParam("apiKey", spoonacularConfig.getApiKey())
-                                .queryParam("number", numberOfRecipes)
-                                .queryParam("addRecipeInformation", true)
-                                .queryParam("fillIngredients", true);
-
-                        if (request.getQuery() != null && !request.getQuery().isEmpty()) {
-                            uriBuilder.queryParam("query", request.getQuery());
-                        }
-                        if (request.getCuisine() != null && !request.getCuisine().isEmpty()) {
-                            uriBuilder.queryParam("cuisine", request.getCuisine());
-                        }
-                        if (request.getDiet() != null && !request.getDiet().isEmpty()) {
-                            uriBuilder.queryParam("diet", request.getDiet());
-                        }
-                        if (request.getMaxReadyTime() != null) {
-                            uriBuilder.queryParam("maxReadyTime", request.getMaxReadyTime());
+    private Mono<List<RecipeResponse>> searchRecipes(Long userId, RecipeSearchRequest request, Scheduler jpa) {
+        int numberOfRecipes = request.getNumberOfRecipes() != null ? Math.max(1, request.getNumberOfRecipes()) : 10;
+        SpoonacularSearchCache.SearchKey key = SpoonacularSearchCache.SearchKey.of(request);
+
+        return findUser(userId, jpa)
+                .flatMap(user -> searchCache.getOrFetch(key, numberOfRecipes,
+                        number -> spoonacularClient.complexSearch(key, number)))
+                .map(results -> results.stream()
+                        .map(this::convertSpoonacularToResponse)
+                        .collect(Collectors.toList()))
+                .onErrorMap(e -> upstreamError("Error searching recipes", e));
+    }
+
+    /**
+     * Suggest recipes based on user's inventory items
+     * Prioritizes items expiring soon
+     */
+    public List<RecipeResponse> suggestRecipes(Long userId, RecipeSuggestRequest request) {
+        return suggestRecipes(userId, request, Schedulers.immediate()).block();
+    }
+
+    /**
+     * Non-blocking variant of suggestRecipes
+     */
+    public Mono<List<RecipeResponse>> suggestRecipesReactive(Long userId, RecipeSuggestRequest request) {
+        return suggestRecipes(userId, request, jpaScheduler);
+    }
+
+    /**
+     * Compute suggestions from scratch, ignoring cached and precomputed results (used by the precompute job)
+     */
+    public List<RecipeResponse> computeSuggestions(Long userId, RecipeSuggestRequest request) {
+        return suggestRecipes(userId, request, Schedulers.immediate(), false).block();
+    }
+
+    /**
+     * Fingerprint of a suggest request over the given inventory item names, with the request defaults applied
+     */
+    public String suggestionFingerprint(List<String> itemNames, RecipeSuggestRequest request) {
+        boolean prioritizeExpiring = request.getPrioritizeExpiring() != null ?
+                request.getPrioritizeExpiring() : true;
+        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 5;
+        int maxMissing = request.getMaxMissingIngredients() != null ? request.getMaxMissingIngredients() : 2;
+        return RecipeSuggestionCache.fingerprint(itemNames, numberOfRecipes, maxMissing, prioritizeExpiring);
+    }
+
+    private Mono<List<RecipeResponse>> suggestRecipes(Long userId, RecipeSuggestRequest request, Scheduler jpa) {
+        return suggestRecipes(userId, request, jpa, true);
+    }
+
+    private Mono<List<RecipeResponse>> suggestRecipes(Long userId, RecipeSuggestRequest request, Scheduler jpa,
+                                                      boolean useStored) {
+        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 5;
+        int maxMissing = request.getMaxMissingIngredients() != null ? request.getMaxMissingIngredients() : 2;
+
+        return Mono.defer(() -> {
+            long stamp = suggestionCache.stamp();
+            return loadSuggestionItems(userId, request, jpa)
+                    .flatMap(items -> {
+                        String fingerprint = suggestionFingerprint(items.stream()
+                                .map(InventoryItem::getName)
+                                .collect(Collectors.toList()), request);
+
+                        // Deferred so that cache and precomputed hits never reach findMatches
+                        Mono<List<RecipeResponse>> computed = Mono.defer(() -> buildSuggestionInput(items, request, jpa))
+                                .flatMap(input -> {
+                                    if (input.local().size() >= numberOfRecipes) {
+                                        return Mono.just(input.local());
+                                    }
+
+                                    return input.upstream()
+                                            .flatMap(recipes -> resolveSuggestions(recipes, maxMissing))
+                                            .defaultIfEmpty(new ArrayList<>())
+                                            .map(remote -> mergeSuggestions(input.local(), remote, numberOfRecipes))
+                                            .onErrorMap(e -> upstreamError("Error suggesting recipes", e));
+                                })
+                                .doOnNext(result -> suggestionCache.put(userId, fingerprint, stamp, result));
+                        if (!useStored) {
+                            return computed;
                         }
 
-                        return uriBuilder.build();
-                    })
-                    .retrieve()
-                    .bodyToMono(SpoonacularSearchResponse.class)
-                    .map(response -> response.getResults().toArray(new SpoonacularRecipe[0]))
-                    .block();
+                        // Same inventory and settings as a previous call: reuse its result
+                        List<RecipeResponse> cached = suggestionCache.get(userId, fingerprint);
+                        if (cached != null) {
+                            return Mono.just(cached);
+                        }
 
-            return recipes != null ?
-                    List.of(recipes).stream()
-                            .map(this::convertSpoonacularToResponse)
-                            .collect(Collectors.toList())
-                    : new ArrayList<>();
+                        // Then the result the nightly job computed, if the inventory has not changed since
+                        return fromJpa(() -> precomputedSuggestionStore.find(userId, fingerprint), jpa)
+                                .flatMap(precomputed -> precomputed
+                                        .map(recipes -> {
+                                            suggestionCache.put(userId, fingerprint, stamp, recipes);
+                                            return Mono.just(recipes);
+                                        })
+                                        .orElse(computed));
+                    });
+        });
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error searching recipes: " + e.getMessage(), e);
-        }
+    /**
+     * Stream suggestions as they resolve: stored recipes first, then Spoonacular recipes in the order
+     * their details arrive, followed by a summary event
+     * JPA lookups run on the subscribing thread, like the blocking suggestRecipes
+     */
+    public Flux<RecipeSuggestStreamEvent> suggestRecipesStream(Long userId, RecipeSuggestRequest request) {
+        return suggestRecipesStream(userId, request, Schedulers.immediate());
     }
 
     /**
-     * Suggest recipes based on user's inventory items
-     * Prioritizes items expiring soon
+     * Variant of suggestRecipesStream that runs JPA lookups on the bounded JPA scheduler
      */
-    public List<RecipeResponse> suggestRecipes(Long userId, RecipeSuggestRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public Flux<RecipeSuggestStreamEvent> suggestRecipesStreamReactive(Long userId, RecipeSuggestRequest request) {
+        return suggestRecipesStream(userId, request, jpaScheduler);
+    }
 
-        // Get inventory items
-        List<InventoryItem> items;
-        if (request.getInventoryItemIds() != null && !request.getInventoryItemIds().isEmpty()) {
-            items = request.getInventoryItemIds().stream()
-                    .map(id -> inventoryRepository.findById(id)
-                            .orElseThrow(() -> new RuntimeException("Inventory item not found: " + id)))
-                    .collect(Collectors.toList());
-        } else {
-            items = inventoryRepository.findByUser(user);
-        }
+    private Flux<RecipeSuggestStreamEvent> suggestRecipesStream(Long userId, RecipeSuggestRequest request, Scheduler jpa) {
+        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 5;
+        int maxMissing = request.getMaxMissingIngredients() != null ? request.getMaxMissingIngredients() : 2;
 
-        if (items.isEmpty()) {
-            throw new RuntimeException("No inventory items found");
-        }
+        return loadSuggestionItems(userId, request, jpa)
+                .flatMap(items -> buildSuggestionInput(items, request, jpa))
+                .flatMapMany(input -> {
+                    AtomicInteger emitted = new AtomicInteger();
+                    AtomicInteger filteredByMaxMissing = new AtomicInteger();
+                    List<RecipeResponse> local = input.local();
+
+                    Flux<RecipeResponse> remote = local.size() >= numberOfRecipes ? Flux.empty()
+                            : input.upstream()
+                            .flatMapMany(recipes -> {
+                                Set<Long> seen = local.stream()
+                                        .map(RecipeResponse::getSpoonacularId)
+                                        .collect(Collectors.toSet());
+                                List<SpoonacularRecipe> candidates = new ArrayList<>();
+                                for (SpoonacularRecipe recipe : recipes) {
+                                    if (recipe.getMissedIngredientCount() > maxMissing) {
+                                        filteredByMaxMissing.incrementAndGet();
+                                    } else if (seen.add(recipe.getId())) {
+                                        candidates.add(recipe);
+                                    }
+                                }
+
+                                // Individual lookups so each recipe goes out as soon as its own details arrive
+                                return Flux.fromIterable(candidates)
+                                        .flatMap(this::resolveSuggestion, DETAIL_FETCH_CONCURRENCY)
+                                        .take(numberOfRecipes - local.size());
+                            })
+                            .onErrorMap(e -> upstreamError("Error suggesting recipes", e));
+
+                    return Flux.fromIterable(local)
+                            .concatWith(remote)
+                            .doOnNext(recipe -> emitted.incrementAndGet())
+                            .map(RecipeSuggestStreamEvent::recipe)
+                            .concatWith(Mono.fromSupplier(() -> RecipeSuggestStreamEvent.summary(
+                                    RecipeSuggestSummary.builder()
+                                            .recipeCount(emitted.get())
+                                            .filteredByMaxMissing(filteredByMaxMissing.get())
+                                            .build())));
+                });
+    }
+
+    /**
+     * Stored-recipe suggestions and the (not yet subscribed) findByIngredients call for a suggest request
+     */
+    private record SuggestionInput(List<RecipeResponse> local, Mono<List<SpoonacularRecipe>> upstream) {
+    }
+
+    private Mono<List<InventoryItem>> loadSuggestionItems(Long userId, RecipeSuggestRequest request, Scheduler jpa) {
+        return findUser(userId, jpa)
+                .flatMap(user -> fromJpa(() -> loadSuggestionItems(user, request), jpa));
+    }
 
+    private Mono<SuggestionInput> buildSuggestionInput(List<InventoryItem> inventoryItems, RecipeSuggestRequest request,
+                                                       Scheduler jpa) {
         // Prioritize expiring items if requested
         boolean prioritizeExpiring = request.getPrioritizeExpiring() != null ?
                 request.getPrioritizeExpiring() : true;
+        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 5;
+        int maxMissing = request.getMaxMissingIngredients() != null ? request.getMaxMissingIngredients() : 2;
 
+        List<InventoryItem> items = inventoryItems;
         if (prioritizeExpiring) {
             items = items.stream()
                     .sorted(Comparator.comparing(InventoryItem::getExpiryDate,
@@ -113,95 +289,288 @@ public class RecipeService {
                     .collect(Collectors.toList());
         }
 
-        // Build ingredient list
-        String ingredients = items.stream()
+        // Rank recipes we already store first; only go upstream when they are not enough
+        List<String> itemNames = items.stream()
                 .map(InventoryItem::getName)
-                .collect(Collectors.joining(","));
+                .collect(Collectors.toList());
+        List<RecipeIngredientIndex.Match> localMatches = recipeIngredientIndex.findMatches(
+                itemNames, maxMissing, numberOfRecipes, prioritizeExpiring);
 
-        int numberOfRecipes = request.getNumberOfRecipes() != null ? request.getNumberOfRecipes() : 5;
-        int maxMissing = request.getMaxMissingIngredients() != null ? request.getMaxMissingIngredients() : 2;
+        Mono<List<SpoonacularRecipe>> upstream = spoonacularClient.findByIngredients(
+                itemNames, numberOfRecipes, prioritizeExpiring);
 
-        try {
-            SpoonacularRecipe[] recipes = spoonacularWebClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/recipes/findByIngredients")
-                            .queryParam("apiKey", spoonacularConfig.getApiKey())
-                            .queryParam("ingredients", ingredients)
-                            .queryParam("number", numberOfRecipes)
-                            .queryParam("ranking", prioritizeExpiring ? 1 : 2)
-                            .queryParam("ignorePantry", true)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(SpoonacularRecipe[].class)
-                    .block();
-
-            if (recipes == null || recipes.length == 0) {
-                return new ArrayList<>();
+        return fromJpa(() -> loadLocalSuggestions(localMatches), jpa)
+                .map(local -> new SuggestionInput(local, upstream));
+    }
+
+    /**
+     * Build suggestion responses from catalog recipes matched by the ingredient index, in match order
+     */
+    private List<RecipeResponse> loadLocalSuggestions(List<RecipeIngredientIndex.Match> matches) {
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Recipe> stored = recipeRepository.findAllWithIngredientsByIdIn(matches.stream()
+                        .map(RecipeIngredientIndex.Match::recipeId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+
+        List<RecipeResponse> result = new ArrayList<>();
+        for (RecipeIngredientIndex.Match match : matches) {
+            Recipe recipe = stored.get(match.recipeId());
+            if (recipe == null) {
+                continue;
             }
+            result.add(RecipeResponse.builder()
+                    .spoonacularId(recipe.getSpoonacularId())
+                    .title(recipe.getTitle())
+                    .image(recipe.getImage())
+                    .readyInMinutes(recipe.getReadyInMinutes())
+                    .servings(recipe.getServings())
+                    .summary(recipe.getSummary())
+                    .instructions(recipe.getInstructions())
+                    .ingredients(new ArrayList<>(recipe.getIngredients()))
+                    .usedIngredients(match.usedIngredients())
+                    .missedIngredients(match.missedIngredients())
+                    .usedIngredientCount(match.usedIngredients().size())
+                    .missedIngredientCount(match.missedIngredients().size())
+                    .build());
+        }
+        return result;
+    }
 
-            // Filter by max missing ingredients and get detailed info
-            List<RecipeResponse> result = new ArrayList<>();
-            for (SpoonacularRecipe recipe : recipes) {
-                if (recipe.getMissedIngredientCount() <= maxMissing) {
-                    RecipeResponse detailed = getRecipeDetails(recipe.getId());
-                    if (detailed != null) {
-                        detailed.setUsedIngredients(
-                                recipe.getUsedIngredients().stream()
-                                        .map(SpoonacularRecipe.UsedIngredient::getOriginal)
-                                        .collect(Collectors.toList())
-                        );
-                        detailed.setMissedIngredients(
-                                recipe.getMissedIngredients().stream()
-                                        .map(SpoonacularRecipe.MissedIngredient::getOriginal)
-                                        .collect(Collectors.toList())
-                        );
-                        detailed.setUsedIngredientCount(recipe.getUsedIngredientCount());
-                        detailed.setMissedIngredientCount(recipe.getMissedIngredientCount());
-                        result.add(detailed);
-                    }
-                }
+    private List<RecipeResponse> mergeSuggestions(List<RecipeResponse> local, List<RecipeResponse> remote, int limit) {
+        Set<Long> seen = local.stream()
+                .map(RecipeResponse::getSpoonacularId)
+                .collect(Collectors.toSet());
+
+        List<RecipeResponse> merged = new ArrayList<>(local);
+        for (RecipeResponse recipe : remote) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            if (seen.add(recipe.getSpoonacularId())) {
+                merged.add(recipe);
             }
+        }
+        return merged;
+    }
 
-            return result;
+    private List<InventoryItem> loadSuggestionItems(User user, RecipeSuggestRequest request) {
+        // Get inventory items
+        List<InventoryItem> items;
+        if (request.getInventoryItemIds() != null && !request.getInventoryItemIds().isEmpty()) {
+            // One query for all ids; other users' items and consumed items count as missing
+            Set<Long> requested = new LinkedHashSet<>(request.getInventoryItemIds());
+            items = inventoryRepository.findActiveByUserAndIdIn(user, requested);
+            if (items.size() < requested.size()) {
+                items.forEach(item -> requested.remove(item.getId()));
+                throw new RuntimeException("Inventory items not found: " + requested.stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", ")));
+            }
+        } else {
+            items = inventoryRepository.findByUser(user);
+        }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error suggesting recipes: " + e.getMessage(), e);
+        if (items.isEmpty()) {
+            throw new RuntimeException("No inventory items found");
         }
+        return items;
+    }
+
+    private Mono<List<RecipeResponse>> resolveSuggestions(List<SpoonacularRecipe> recipes, int maxMissing) {
+        // Filter by max missing ingredients, then resolve all details in one bulk call
+        List<SpoonacularRecipe> candidates = recipes.stream()
+                .filter(recipe -> recipe.getMissedIngredientCount() <= maxMissing)
+                .collect(Collectors.toList());
+
+        return getRecipeDetailsBulk(candidates.stream()
+                        .map(SpoonacularRecipe::getId)
+                        .collect(Collectors.toList()))
+                .map(details -> {
+                    List<RecipeResponse> result = new ArrayList<>();
+                    for (SpoonacularRecipe recipe : candidates) {
+                        SpoonacularRecipe detailedRecipe = details.get(recipe.getId());
+                        if (detailedRecipe != null) {
+                            result.add(mergeSuggestion(convertSpoonacularToResponse(detailedRecipe), recipe));
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Resolve one findByIngredients candidate from the details cache or its own information call
+     * A candidate whose details cannot be fetched is dropped rather than failing the whole stream
+     */
+    private Mono<RecipeResponse> resolveSuggestion(SpoonacularRecipe recipe) {
+        SpoonacularRecipe cached = cachedRecipeDetails(recipe.getId());
+        Mono<SpoonacularRecipe> details = cached != null ? Mono.just(cached) : fetchRecipeDetails(recipe.getId());
+
+        return details
+                .map(detailed -> mergeSuggestion(convertSpoonacularToResponse(detailed), recipe))
+                .onErrorResume(e -> !(e instanceof SpoonacularQuotaExceededException), e -> Mono.empty());
+    }
+
+    private RecipeResponse mergeSuggestion(RecipeResponse detailed, SpoonacularRecipe recipe) {
+        detailed.setUsedIngredients(
+                recipe.getUsedIngredients().stream()
+                        .map(SpoonacularRecipe.UsedIngredient::getOriginal)
+                        .collect(Collectors.toList())
+        );
+        detailed.setMissedIngredients(
+                recipe.getMissedIngredients().stream()
+                        .map(SpoonacularRecipe.MissedIngredient::getOriginal)
+                        .collect(Collectors.toList())
+        );
+        detailed.setUsedIngredientCount(recipe.getUsedIngredientCount());
+        detailed.setMissedIngredientCount(recipe.getMissedIngredientCount());
+        return detailed;
     }
 
     /**
      * Get detailed recipe information from Spoonacular
+     * Raw payloads are cached by spoonacularId in memory and on disk, so repeated lookups skip the upstream call,
+     * also after a restart
      */
     public RecipeResponse getRecipeDetails(Long spoonacularId) {
-        try {
-            SpoonacularRecipe recipe = spoonacularWebClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/recipes/{id}/information")
-                            .queryParam("apiKey", spoonacularConfig.getApiKey())
-                            .build(spoonacularId))
-                    .retrieve()
-                    .bodyToMono(SpoonacularRecipe.class)
-                    .block();
+        return getRecipeDetailsReactive(spoonacularId).block();
+    }
+
+    /**
+     * Non-blocking variant of getRecipeDetails
+     */
+    public Mono<RecipeResponse> getRecipeDetailsReactive(Long spoonacularId) {
+        SpoonacularRecipe cached = cachedRecipeDetails(spoonacularId);
+        if (cached != null) {
+            return Mono.just(convertSpoonacularToResponse(cached));
+        }
 
-            return recipe != null ? convertSpoonacularToResponse(recipe) : null;
+        return fetchRecipeDetails(spoonacularId)
+                .map(this::convertSpoonacularToResponse)
+                .onErrorMap(e -> upstreamError("Error getting recipe details", e));
+    }
+
+    /**
+     * Resolve details for several recipes at once, keyed by spoonacularId
+     * Cached recipes are served directly; the rest go through a single informationBulk call,
+     * falling back to concurrent individual lookups if the bulk call fails (recipes those cannot fetch are left out)
+     */
+    private Mono<Map<Long, SpoonacularRecipe>> getRecipeDetailsBulk(List<Long> spoonacularIds) {
+        Map<Long, SpoonacularRecipe> details = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : spoonacularIds) {
+            SpoonacularRecipe cached = cachedRecipeDetails(id);
+            if (cached != null) {
+                details.put(id, cached);
+            } else if (!missing.contains(id)) {
+                missing.add(id);
+            }
+        }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error getting recipe details: " + e.getMessage(), e);
+        if (missing.isEmpty()) {
+            return Mono.just(details);
         }
+
+        return spoonacularClient.informationBulk(missing)
+                .onErrorResume(e -> !(e instanceof SpoonacularQuotaExceededException), e -> Flux.fromIterable(missing)
+                        // As in resolveSuggestion: a recipe whose details cannot be fetched is dropped, not fatal
+                        .flatMap(id -> fetchRecipeDetails(id)
+                                .onErrorResume(error -> !(error instanceof SpoonacularQuotaExceededException),
+                                        error -> Mono.empty()), DETAIL_FETCH_CONCURRENCY)
+                        .collectList())
+                .map(fetched -> {
+                    for (SpoonacularRecipe recipe : fetched) {
+                        cacheRecipeDetails(recipe);
+                        details.put(recipe.getId(), recipe);
+                    }
+                    return details;
+                });
+    }
+
+    private Mono<SpoonacularRecipe> fetchRecipeDetails(Long spoonacularId) {
+        return spoonacularClient.information(spoonacularId)
+                .doOnNext(this::cacheRecipeDetails);
+    }
+
+    /**
+     * Details from the in-memory cache, then from the disk cache (promoted to memory on a hit); null if neither has them
+     */
+    private SpoonacularRecipe cachedRecipeDetails(Long spoonacularId) {
+        SpoonacularRecipe cached = recipeDetailsCache().get(spoonacularId, SpoonacularRecipe.class);
+        if (cached == null) {
+            cached = recipeDetailsDiskCache.get(spoonacularId);
+            if (cached != null) {
+                recipeDetailsCache().put(spoonacularId, cached);
+            }
+        }
+        return cached;
+    }
+
+    private void cacheRecipeDetails(SpoonacularRecipe recipe) {
+        recipeDetailsCache().put(recipe.getId(), recipe);
+        recipeDetailsDiskCache.put(recipe);
+    }
+
+    /**
+     * Wrap upstream failures with a per-operation message, letting quota errors through so they map to 429
+     */
+    private static Throwable upstreamError(String message, Throwable e) {
+        if (e instanceof SpoonacularQuotaExceededException) {
+            return e;
+        }
+        return new RuntimeException(message + ": " + e.getMessage(), e);
+    }
+
+    private Mono<User> findUser(Long userId, Scheduler jpa) {
+        return fromJpa(() -> userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found")), jpa);
+    }
+
+    /**
+     * Run a blocking repository call on the given scheduler
+     * Blocking callers pass Schedulers.immediate() so lookups stay on their thread and transaction;
+     * reactive callers pass the bounded JPA scheduler
+     */
+    private <T> Mono<T> fromJpa(Callable<T> call, Scheduler jpa) {
+        return Mono.fromCallable(call).subscribeOn(jpa);
     }
 
     /**
      * Save a recipe to user's collection
+     * The catalog row is shared: it is only fetched from Spoonacular and created the first time anyone saves the recipe
      */
     @Transactional
     public RecipeResponse saveRecipe(Long userId, Long spoonacularId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (recipeRepository.existsByUserAndSpoonacularId(user, spoonacularId)) {
+        if (savedRecipeRepository.existsByUserAndRecipeSpoonacularId(user, spoonacularId)) {
             throw new RuntimeException("Recipe already saved");
         }
 
+        Recipe recipe = recipeRepository.findBySpoonacularId(spoonacularId)
+                .orElseGet(() -> createCatalogRecipe(spoonacularId));
+
+        SavedRecipe savedRecipe = SavedRecipe.builder()
+                .user(user)
+                .recipe(recipe)
+                .usedIngredients(new ArrayList<>())
+                .missedIngredients(new ArrayList<>())
+                .usedIngredientCount(0)
+                .missedIngredientCount(0)
+                .savedAt(LocalDateTime.now())
+                .isCooked(false)
+                .build();
+
+        return RecipeResponse.fromEntity(savedRecipeRepository.save(savedRecipe));
+    }
+
+    private Recipe createCatalogRecipe(Long spoonacularId) {
         RecipeResponse recipeDetails = getRecipeDetails(spoonacularId);
         if (recipeDetails == null) {
             throw new RuntimeException("Recipe not found");
@@ -216,106 +585,350 @@ public class RecipeService {
                 .summary(recipeDetails.getSummary())
                 .instructions(recipeDetails.getInstructions())
                 .ingredients(recipeDetails.getIngredients())
-                .usedIngredients(recipeDetails.getUsedIngredients() != null ?
-                        recipeDetails.getUsedIngredients() : new ArrayList<>())
-                .missedIngredients(recipeDetails.getMissedIngredients() != null ?
-                        recipeDetails.getMissedIngredients() : new ArrayList<>())
-                .usedIngredientCount(recipeDetails.getUsedIngredientCount() != null ?
-                        recipeDetails.getUsedIngredientCount() : 0)
-                .missedIngredientCount(recipeDetails.getMissedIngredientCount() != null ?
-                        recipeDetails.getMissedIngredientCount() : 0)
-                .user(user)
-                .savedAt(LocalDateTime.now())
-                .isCooked(false)
                 .build();
 
-        Recipe saved = recipeRepository.save(recipe);
-        return RecipeResponse.fromEntity(saved);
+        try {
+            // Committed on its own: the catalog row is shared, and a lost insert race must not break the caller's transaction
+            Recipe saved = newTransaction().execute(status -> recipeRepository.saveAndFlush(recipe));
+            // Only committed rows enter the index
+            recipeIngredientIndex.index(saved);
+        } catch (DataIntegrityViolationException e) {
+            // Someone else saved the same new recipe at the same time; theirs is the catalog row
+        }
+        return recipeRepository.findBySpoonacularId(spoonacularId)
+                .orElseThrow(() -> new RuntimeException("Recipe not found"));
     }
 
     /**
-     * Get all saved recipes for a user
+     * A transaction of its own, even when the caller already has one
      */
-    public List<RecipeResponse> getSavedRecipes(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
 
-        return recipeRepository.findByUser(user).stream()
-                .map(RecipeResponse::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Get a page of a user's saved recipes, newest first
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit  page size, defaults to {@value #DEFAULT_SAVED_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public SavedRecipePage<RecipeResponse> getSavedRecipes(Long userId, String cursor, Integer limit) {
+        return listSavedRecipes(userId, null, cursor, limit);
+    }
+
+    /**
+     * Get a page of a user's cooked recipes, newest saved first
+     */
+    @Transactional(readOnly = true)
+    public SavedRecipePage<RecipeResponse> getCookedRecipes(Long userId, String cursor, Integer limit) {
+        return listSavedRecipes(userId, true, cursor, limit);
+    }
+
+    /**
+     * Summary variant of getSavedRecipes: a single query, without summary, instructions or ingredient lists
+     */
+    @Transactional(readOnly = true)
+    public SavedRecipePage<RecipeSummaryResponse> getSavedRecipeSummaries(Long userId, String cursor, Integer limit) {
+        return listSavedRecipeSummaries(userId, null, cursor, limit);
+    }
+
+    /**
+     * Summary variant of getCookedRecipes
+     */
+    @Transactional(readOnly = true)
+    public SavedRecipePage<RecipeSummaryResponse> getCookedRecipeSummaries(Long userId, String cursor, Integer limit) {
+        return listSavedRecipeSummaries(userId, true, cursor, limit);
+    }
+
+    /**
+     * Get one saved recipe with its full text and ingredient lists
+     */
+    @Transactional(readOnly = true)
+    public RecipeResponse getSavedRecipe(Long userId, Long savedRecipeId) {
+        SavedRecipe savedRecipe = savedRecipeRepository.findById(savedRecipeId)
+                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+
+        if (!savedRecipe.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Recipe does not belong to user");
+        }
+
+        return RecipeResponse.fromEntity(savedRecipe);
     }
 
     /**
-     * Get cooked recipes for a user
+     * One projection query for the page plus one IN query per ingredient list,
+     * so the query count does not grow with the number of recipes
      */
-    public List<RecipeResponse> getCookedRecipes(Long userId) {
+    private SavedRecipePage<RecipeResponse> listSavedRecipes(Long userId, Boolean cooked, String cursor, Integer limit) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return recipeRepository.findByUserAndIsCooked(user, true).stream()
-                .map(RecipeResponse::fromEntity)
+        int pageSize = savedPageSize(limit);
+        // One extra row tells us whether there is a next page
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<SavedRecipeRow> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = savedRecipeRepository.findRows(user, cooked, fetchLimit);
+        } else {
+            SavedRecipeCursor after = SavedRecipeCursor.decode(cursor);
+            rows = savedRecipeRepository.findRowsAfter(user, cooked, after.savedAt(), after.id(), fetchLimit);
+        }
+
+        SavedRecipePage<SavedRecipeRow> page = toPage(rows, pageSize,
+                row -> new SavedRecipeCursor(row.getSavedAt(), row.getId()));
+        if (page.getRecipes().isEmpty()) {
+            return new SavedRecipePage<>(new ArrayList<>(), null);
+        }
+
+        Map<Long, List<String>> ingredients = groupByOwner(savedRecipeRepository.findIngredientsByRecipeIds(
+                page.getRecipes().stream().map(SavedRecipeRow::getRecipeId).collect(Collectors.toSet())));
+        List<Long> savedIds = page.getRecipes().stream()
+                .map(SavedRecipeRow::getId)
                 .collect(Collectors.toList());
+        Map<Long, List<String>> used = groupByOwner(savedRecipeRepository.findUsedIngredientsByIds(savedIds));
+        Map<Long, List<String>> missed = groupByOwner(savedRecipeRepository.findMissedIngredientsByIds(savedIds));
+
+        List<RecipeResponse> recipes = page.getRecipes().stream()
+                .map(row -> RecipeResponse.builder()
+                        .id(row.getId())
+                        .spoonacularId(row.getSpoonacularId())
+                        .title(row.getTitle())
+                        .image(row.getImage())
+                        .readyInMinutes(row.getReadyInMinutes())
+                        .servings(row.getServings())
+                        .summary(row.getSummary())
+                        .instructions(row.getInstructions())
+                        .ingredients(ingredients.getOrDefault(row.getRecipeId(), new ArrayList<>()))
+                        .usedIngredients(used.getOrDefault(row.getId(), new ArrayList<>()))
+                        .missedIngredients(missed.getOrDefault(row.getId(), new ArrayList<>()))
+                        .usedIngredientCount(row.getUsedIngredientCount())
+                        .missedIngredientCount(row.getMissedIngredientCount())
+                        .isCooked(row.getIsCooked())
+                        .cookedAt(row.getCookedAt())
+                        .savedAt(row.getSavedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        return new SavedRecipePage<>(recipes, page.getNextCursor());
+    }
+
+    private SavedRecipePage<RecipeSummaryResponse> listSavedRecipeSummaries(Long userId, Boolean cooked, String cursor,
+                                                                            Integer limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        int pageSize = savedPageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<RecipeSummaryResponse> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = savedRecipeRepository.findSummaries(user, cooked, fetchLimit);
+        } else {
+            SavedRecipeCursor after = SavedRecipeCursor.decode(cursor);
+            rows = savedRecipeRepository.findSummariesAfter(user, cooked, after.savedAt(), after.id(), fetchLimit);
+        }
+
+        return toPage(rows, pageSize, row -> new SavedRecipeCursor(row.getSavedAt(), row.getId()));
+    }
+
+    private static int savedPageSize(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, MAX_SAVED_PAGE_SIZE)) : DEFAULT_SAVED_PAGE_SIZE;
+    }
+
+    /**
+     * Trim a pageSize + 1 result to the page, with a cursor after its last row when there is more
+     */
+    private static <T> SavedRecipePage<T> toPage(List<T> rows, int pageSize, Function<T, SavedRecipeCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new SavedRecipePage<>(new ArrayList<>(rows), null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new SavedRecipePage<>(page, cursorOf.apply(page.get(page.size() - 1)).encode());
+    }
+
+    private static Map<Long, List<String>> groupByOwner(List<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return grouped;
+    }
+
+    /**
+     * Position after the last row of a page; opaque to clients
+     */
+    private record SavedRecipeCursor(LocalDateTime savedAt, Long id) {
+
+        String encode() {
+            String raw = savedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SavedRecipeCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new SavedRecipeCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 
     /**
      * Mark a recipe as cooked and optionally deduct ingredients from inventory
+     * The deduction is one batch: a single lookup for all items, then batched updates and deletes.
+     * Items are version-checked; if another device changed one in the meantime, the whole operation
+     * is retried against fresh data, after a short jittered wait.
+     * Each attempt is a transaction of its own, so a retry never joins a caller's transaction already marked for rollback.
      */
-    @Transactional
-    public RecipeResponse markAsCooked(Long userId, MarkAsCookedRequest request) {
+    public MarkAsCookedResponse markAsCooked(Long userId, MarkAsCookedRequest request) {
+        TransactionTemplate transaction = newTransaction();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> markAsCookedOnce(userId, request));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= markAsCookedMaxAttempts) {
+                    throw new RuntimeException("Inventory was modified concurrently, please try again");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long base = markAsCookedRetryBackoff.toMillis() * attempt;
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(base / 2, base + base / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while marking recipe as cooked");
+        }
+    }
+
+    private MarkAsCookedResponse markAsCookedOnce(Long userId, MarkAsCookedRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Recipe recipe = recipeRepository.findById(request.getRecipeId())
+        SavedRecipe savedRecipe = savedRecipeRepository.findById(request.getRecipeId())
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
 
-        if (!recipe.getUser().getId().equals(userId)) {
+        if (!savedRecipe.getUser().getId().equals(userId)) {
             throw new RuntimeException("Recipe does not belong to user");
         }
 
-        recipe.setIsCooked(true);
-        recipe.setCookedAt(LocalDateTime.now());
+        savedRecipe.setIsCooked(true);
+        savedRecipe.setCookedAt(LocalDateTime.now());
 
         boolean deduct = request.getDeductFromInventory() != null ?
                 request.getDeductFromInventory() : true;
 
+        List<InventoryDeduction> deductions = new ArrayList<>();
         if (deduct && request.getIngredientsUsedIds() != null && !request.getIngredientsUsedIds().isEmpty()) {
-            for (Long itemId : request.getIngredientsUsedIds()) {
-                InventoryItem item = inventoryRepository.findById(itemId)
-                        .orElseThrow(() -> new RuntimeException("Inventory item not found: " + itemId));
+            deductions = deductIngredients(userId, request.getIngredientsUsedIds());
+        }
 
-                if (!item.getUser().getId().equals(userId)) {
-                    throw new RuntimeException("Inventory item does not belong to user");
-                }
+        SavedRecipe saved = savedRecipeRepository.save(savedRecipe);
+        return MarkAsCookedResponse.builder()
+                .recipe(RecipeResponse.fromEntity(saved))
+                .inventoryUpdates(deductions)
+                .build();
+    }
 
-                if (item.getQuantity() > 1) {
-                    item.setQuantity(item.getQuantity() - 1);
-                    inventoryRepository.save(item);
-                } else {
-                    inventoryRepository.delete(item);
-                }
+    /**
+     * Use one unit of each listed item (an id listed twice uses two)
+     * Items owned by someone else fail the whole request; items that no longer exist are reported as NOT_FOUND
+     */
+    private List<InventoryDeduction> deductIngredients(Long userId, List<Long> itemIds) {
+        Map<Long, Integer> unitsUsed = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            unitsUsed.merge(itemId, 1, Integer::sum);
+        }
+
+        Map<Long, InventoryItem> items = inventoryRepository.findAllById(unitsUsed.keySet()).stream()
+                .collect(Collectors.toMap(InventoryItem::getId, item -> item));
+
+        List<InventoryDeduction> deductions = new ArrayList<>();
+        List<InventoryItem> toUpdate = new ArrayList<>();
+        List<InventoryItem> toDelete = new ArrayList<>();
+        for (Map.Entry<Long, Integer> use : unitsUsed.entrySet()) {
+            InventoryItem item = items.get(use.getKey());
+            if (item == null) {
+                deductions.add(InventoryDeduction.builder()
+                        .itemId(use.getKey())
+                        .outcome(InventoryDeduction.Outcome.NOT_FOUND)
+                        .build());
+                continue;
+            }
+
+            if (!item.getUser().getId().equals(userId)) {
+                throw new RuntimeException("Inventory item does not belong to user");
+            }
+
+            int remaining = item.getQuantity() - use.getValue();
+            if (remaining > 0) {
+                item.setQuantity(remaining);
+                toUpdate.add(item);
+                deductions.add(InventoryDeduction.builder()
+                        .itemId(item.getId())
+                        .name(item.getName())
+                        .outcome(InventoryDeduction.Outcome.DECREMENTED)
+                        .remainingQuantity(remaining)
+                        .build());
+            } else {
+                toDelete.add(item);
+                deductions.add(InventoryDeduction.builder()
+                        .itemId(item.getId())
+                        .name(item.getName())
+                        .outcome(InventoryDeduction.Outcome.REMOVED)
+                        .build());
             }
         }
 
-        Recipe saved = recipeRepository.save(recipe);
-        return RecipeResponse.fromEntity(saved);
+        if (!toUpdate.isEmpty() || !toDelete.isEmpty()) {
+            inventoryVersionService.recordChanges(userId, toUpdate, toDelete);
+            inventoryRepository.saveAll(toUpdate);
+            inventoryRepository.deleteAll(toDelete);
+            // Flush here so a version conflict surfaces inside the retry loop, not at commit
+            inventoryRepository.flush();
+            eventPublisher.publishEvent(new InventoryChangedEvent(userId));
+        }
+        return deductions;
     }
 
     /**
      * Delete a saved recipe
+     * Only the user's link is removed; the catalog recipe stays for other users and for suggestions
      */
     @Transactional
     public void deleteRecipe(Long userId, Long recipeId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Recipe recipe = recipeRepository.findById(recipeId)
+        SavedRecipe savedRecipe = savedRecipeRepository.findById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
 
-        if (!recipe.getUser().getId().equals(userId)) {
+        if (!savedRecipe.getUser().getId().equals(userId)) {
             throw new RuntimeException("Recipe does not belong to user");
         }
 
-        recipeRepository.delete(recipe);
+        savedRecipeRepository.delete(savedRecipe);
+    }
+
+    private Cache recipeDetailsCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.RECIPE_DETAILS_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CacheConfig.RECIPE_DETAILS_CACHE);
+        }
+        return cache;
     }
 
     private RecipeResponse convertSpoonacularToResponse(SpoonacularRecipe spoonacular) {
@@ -337,14 +950,4 @@ public class RecipeService {
                 .ingredients(ingredients)
                 .build();
     }
-
-    @lombok.Data
-    @lombok.NoArgsConstructor
-    @lombok.AllArgsConstructor
-    private static class SpoonacularSearchResponse {
-        private List<SpoonacularRecipe> results;
-        private int offset;
-        private int number;
-        private int totalResults;
-    }
 }
@@ -0,0 +1,121 @@
+package com.wasteless.backend.service;
+
+import com.wasteless.backend.config.CacheConfig;
+import com.wasteless.backend.dto.recipe.RecipeResponse;
+import com.wasteless.backend.event.InventoryChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user cache of suggestion results, keyed by a fingerprint of the inventory and request settings.
+ * All of a user's entries are dropped when their inventory changes (see {@link InventoryChangedEvent}).
+ * A result computed while an invalidation happened is not stored, so it cannot outlive the change.
+ */
+@Component
+public class RecipeSuggestionCache {
+
+    private final CacheManager cacheManager;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    // Logical clock for invalidations; a put is dropped if the user was invalidated after the lookup started.
+    // Stamps expire with the cache TTL: no lookup runs that long, and anything it stored would be gone by then.
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> invalidatedAt;
+
+    public RecipeSuggestionCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                 @Value("${recipe.cache.suggestions.ttl:6h}") Duration ttl) {
+        this.cacheManager = cacheManager;
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .<Long, Long>build()
+                .asMap();
+        this.hitCounter = Counter.builder("recipe.suggestions.cache")
+                .description("Suggestion cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("recipe.suggestions.cache")
+                .description("Suggestion cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sorted, normalized ingredient names plus the settings that change the upstream request
+     */
+    public static String fingerprint(Collection<String> ingredientNames, int numberOfRecipes, int maxMissing,
+                                     boolean prioritizeExpiring) {
+        String ingredients = ingredientNames.stream()
+                .filter(name -> name != null && !name.isBlank())
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .sorted()
+                .collect(Collectors.joining(","));
+        return ingredients + "|n=" + numberOfRecipes + "|m=" + maxMissing + "|r=" + (prioritizeExpiring ? 1 : 2);
+    }
+
+    /**
+     * Take before loading the inventory and pass to {@link #put}
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    public List<RecipeResponse> get(Long userId, String fingerprint) {
+        UserSuggestions suggestions = cache().get(userId, UserSuggestions.class);
+        List<RecipeResponse> result = suggestions != null ? suggestions.byFingerprint().get(fingerprint) : null;
+        (result != null ? hitCounter : missCounter).increment();
+        return result;
+    }
+
+    public void put(Long userId, String fingerprint, long stamp, List<RecipeResponse> result) {
+        if (invalidatedAt.getOrDefault(userId, -1L) > stamp) {
+            return;
+        }
+        UserSuggestions suggestions = cache().get(userId,
+                () -> new UserSuggestions(new ConcurrentHashMap<>()));
+        List<RecipeResponse> stored = List.copyOf(result);
+        suggestions.byFingerprint().put(fingerprint, stored);
+
+        // An invalidation between the check above and the insert may have evicted before the entry existed (and
+        // this put then created a fresh one). Its stamp is written before it evicts, so it is visible here.
+        if (invalidatedAt.getOrDefault(userId, -1L) > stamp) {
+            suggestions.byFingerprint().remove(fingerprint, stored);
+        }
+    }
+
+    /**
+     * Runs after the change commits, or straight away when there is no transaction
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        // Stamp first, then evict: a concurrent put either inserted before the eviction or sees the stamp on re-check
+        invalidatedAt.put(event.userId(), clock.incrementAndGet());
+        cache().evict(event.userId());
+    }
+
+    private record UserSuggestions(Map<String, List<RecipeResponse>> byFingerprint) {
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CacheConfig.RECIPE_SUGGESTIONS_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CacheConfig.RECIPE_SUGGESTIONS_CACHE);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,127 @@
+package com.wasteless.backend.service;
+
+import com.wasteless.backend.dto.recipe.RecipeResponse;
+import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import com.wasteless.backend.model.ExpirationSettings;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.ExpirationSettingsRepository;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.spoonacular.SpoonacularRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly "use it up" job: for every user with items expiring soon, compute the default suggestions
+ * (expiring items ranked first) while traffic is low and store them, so the suggest endpoint can answer
+ * from the stored result when the user opens it after an expiry alert.
+ * Upstream calls go through the regular rate-limited Spoonacular path; the job stops once the remaining
+ * daily quota drops to the configured reserve, leaving that for interactive requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestionPrecomputeJob {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ExpirationSettingsRepository expirationSettingsRepository;
+    private final RecipeService recipeService;
+    private final PrecomputedSuggestionStore precomputedSuggestionStore;
+    private final SpoonacularRateLimiter rateLimiter;
+
+    @Value("${recipe.suggest.precompute.enabled:true}")
+    private boolean enabled;
+
+    // Used when the user has no expiration settings; otherwise their first-alert window
+    @Value("${recipe.suggest.precompute.days-ahead:3}")
+    private int defaultDaysAhead;
+
+    // Spoonacular points left untouched for daytime requests
+    @Value("${recipe.suggest.precompute.quota-reserve:50}")
+    private double quotaReserve;
+
+    // A stored result for an unchanged inventory younger than this is kept as is
+    @Value("${recipe.suggest.precompute.refresh-after:20h}")
+    private Duration refreshAfter;
+
+    @Scheduled(cron = "${recipe.suggest.precompute.cron:0 0 3 * * *}")
+    public void precompute() {
+        if (!enabled) {
+            return;
+        }
+
+        int computed = 0;
+        int skipped = 0;
+        List<User> page = userRepository.findAfter(0L, Limit.of(PAGE_SIZE));
+        users:
+        while (!page.isEmpty()) {
+            for (User user : page) {
+                if (rateLimiter.getRemainingQuota() <= quotaReserve) {
+                    log.info("Stopping suggestion precompute: Spoonacular quota down to reserve");
+                    break users;
+                }
+
+                try {
+                    if (precomputeFor(user)) {
+                        computed++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (SpoonacularQuotaExceededException e) {
+                    log.info("Stopping suggestion precompute: {}", e.getMessage());
+                    break users;
+                } catch (RuntimeException e) {
+                    log.warn("Suggestion precompute failed for user {}: {}", user.getId(), e.getMessage());
+                }
+            }
+            page = userRepository.findAfter(page.get(page.size() - 1).getId(), Limit.of(PAGE_SIZE));
+        }
+        log.info("Suggestion precompute done: {} users computed, {} skipped", computed, skipped);
+    }
+
+    /**
+     * @return false when the user has nothing expiring or the stored result is still current
+     */
+    private boolean precomputeFor(User user) {
+        int daysAhead = expirationSettingsRepository.findByUser(user)
+                .map(ExpirationSettings::getDaysBeforeExpiryFirstAlert)
+                .orElse(defaultDaysAhead);
+        LocalDate today = LocalDate.now();
+
+        boolean hasExpiring = inventoryRepository.findByUserAndExpiryDateBetween(user, today, today.plusDays(daysAhead))
+                .stream()
+                .anyMatch(item -> item.getStatus() == InventoryItem.ItemStatus.ACTIVE);
+        if (!hasExpiring) {
+            return false;
+        }
+
+        // Default request, as sent by the suggestions tab; prioritizeExpiring puts the expiring items first
+        RecipeSuggestRequest request = new RecipeSuggestRequest();
+        String fingerprint = recipeService.suggestionFingerprint(
+                inventoryRepository.findByUser(user).stream()
+                        .map(InventoryItem::getName)
+                        .collect(Collectors.toList()),
+                request);
+        if (precomputedSuggestionStore.isFresh(user.getId(), fingerprint, refreshAfter)) {
+            return false;
+        }
+
+        List<RecipeResponse> suggestions = recipeService.computeSuggestions(user.getId(), request);
+        precomputedSuggestionStore.save(user, fingerprint, suggestions);
+        return true;
+    }
+}
@@ -0,0 +1,169 @@
+package com.wasteless.backend.service.image;
+
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.InventoryVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Copies inline base64 images still held in inventory_items.image_url and users.profile_picture into the
+ * {@link ImageStore} and records their hash in the row. Runs at startup in batches, one transaction each.
+ * The inline value is kept as the source of truth until the copies are verified on durable storage
+ * (db/manual/005 clears it then): a row whose blob has gone missing, e.g. because image.store.dir was wiped
+ * by a redeploy, is copied again on the next run.
+ * Copied inventory images count as item changes (new inventory version, delta sync upsert) like any other.
+ * External URLs stay where they are, and values that do not decode to an image are logged and left alone.
+ * Off by default: only enable it once image.store.dir is on a persistent volume.
+ */
+@Slf4j
+@Component
+public class ImageMigration {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int BATCH_ATTEMPTS = 3;
+
+    private final ImageStore imageStore;
+    private final InventoryRepository inventoryRepository;
+    private final UserRepository userRepository;
+    private final InventoryVersionService inventoryVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${image.migration.enabled:false}")
+    private boolean enabled;
+
+    public ImageMigration(ImageStore imageStore,
+                          InventoryRepository inventoryRepository,
+                          UserRepository userRepository,
+                          InventoryVersionService inventoryVersionService,
+                          PlatformTransactionManager transactionManager) {
+        this.imageStore = imageStore;
+        this.inventoryRepository = inventoryRepository;
+        this.userRepository = userRepository;
+        this.inventoryVersionService = inventoryVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        if (!imageStore.isAvailable()) {
+            log.warn("Image migration skipped: the image store is unavailable");
+            return;
+        }
+
+        long start = System.nanoTime();
+        int items = 0;
+        Long after = 0L;
+        while (after != null) {
+            BatchProgress progress = new BatchProgress();
+            Long from = after;
+            after = inBatch(() -> {
+                List<InventoryItem> batch = inventoryRepository.findWithLegacyImageAfter(from, Limit.of(BATCH_SIZE));
+                Map<Long, List<InventoryItem>> changedByUser = new LinkedHashMap<>();
+                for (InventoryItem item : batch) {
+                    progress.lastRead = item.getId();
+                    String hash = copyToStore("inventory item " + item.getId(), item.getImageHash(), item.getImageUrl());
+                    if (hash != null && !hash.equals(item.getImageHash())) {
+                        item.setImageHash(hash);
+                        changedByUser.computeIfAbsent(item.getUser().getId(), userId -> new ArrayList<>()).add(item);
+                        progress.moved++;
+                    }
+                }
+                changedByUser.forEach((userId, changed) -> inventoryVersionService.recordChanges(userId, changed, List.of()));
+                return batch.isEmpty() ? null : progress.lastRead;
+            }, from, progress);
+            items += progress.moved;
+        }
+
+        int users = 0;
+        after = 0L;
+        while (after != null) {
+            BatchProgress progress = new BatchProgress();
+            Long from = after;
+            after = inBatch(() -> {
+                List<User> batch = userRepository.findWithLegacyPictureAfter(from, Limit.of(BATCH_SIZE));
+                for (User user : batch) {
+                    progress.lastRead = user.getId();
+                    String hash = copyToStore("user " + user.getId(), user.getProfilePictureHash(),
+                            user.getProfilePicture());
+                    if (hash != null && !hash.equals(user.getProfilePictureHash())) {
+                        user.setProfilePictureHash(hash);
+                        progress.moved++;
+                    }
+                }
+                return batch.isEmpty() ? null : progress.lastRead;
+            }, from, progress);
+            users += progress.moved;
+        }
+
+        if (items > 0 || users > 0) {
+            log.info("Copied {} inventory images and {} profile pictures to the image store in {} ms",
+                    items, users, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Run one batch in its own transaction (changes are flushed on commit), rereading it if a client changed one of
+     * its rows meanwhile
+     *
+     * @param progress filled in by the batch as it goes, and reset before each attempt
+     * @return the last id of the batch, or null when there are no more rows
+     */
+    private Long inBatch(Supplier<Long> batch, Long from, BatchProgress progress) {
+        for (int attempt = 1; ; attempt++) {
+            progress.lastRead = null;
+            progress.moved = 0;
+            try {
+                return transactionTemplate.execute(status -> batch.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= BATCH_ATTEMPTS || progress.lastRead == null) {
+                    // Carry on after the rows this batch read; the next startup retries them
+                    log.warn("Image migration batch after id {} skipped: {}", from, e.getMessage());
+                    progress.moved = 0;
+                    return progress.lastRead;
+                }
+            }
+        }
+    }
+
+    // What the current batch attempt has done so far
+    private static final class BatchProgress {
+        private Long lastRead;
+        private int moved;
+    }
+
+    /**
+     * Store the inline image unless its blob is already there
+     *
+     * @return the hash to keep in the row, or null when there is nothing to copy
+     */
+    private String copyToStore(String owner, String hash, String value) {
+        if (!ImageStore.isInline(value) || (hash != null && imageStore.exists(hash))) {
+            return null;
+        }
+        try {
+            return imageStore.storeBase64(value).hash();
+        } catch (RuntimeException e) {
+            log.warn("Could not copy the image of {} to the image store: {}", owner, e.getMessage());
+            return null;
+        }
+    }
+}
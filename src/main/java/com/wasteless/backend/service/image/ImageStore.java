@@ -0,0 +1,414 @@
+package com.wasteless.backend.service.image;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image blobs on disk, keyed by the SHA-256 of their bytes.
+ * Entities keep only the hash; the same picture uploaded twice is stored once.
+ * <p>
+ * Layout under image.store.dir: {@code ab/abcdef...} for the original and {@code ab/abcdef....thumb} for its
+ * thumbnail. Uploads are streamed to a temp file while hashed, then renamed into place, so a blob is either
+ * complete or absent. Thumbnails are generated in the background after a new image is stored; until then
+ * (and for formats ImageIO cannot decode, or images already small enough) the original stands in.
+ * <p>
+ * image.store.dir must be on durable, writable storage. Where there is none, set image.store.enabled=false; if the
+ * directory cannot be created the store is likewise unavailable rather than failing startup. Either way inline
+ * images are then kept inline in the row, as before the store existed, and uploads are refused.
+ * Blobs no entity references any more are removed by {@link ImageSweepJob}.
+ */
+@Slf4j
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/api/v1/images/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String THUMBNAIL_SUFFIX = ".thumb";
+    private static final int SNIFF_BYTES = 12;
+
+    @Value("${image.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.store.dir:data/images}")
+    private Path directory;
+
+    @Value("${image.store.max-size:10MB}")
+    private DataSize maxSize;
+
+    @Value("${image.thumbnail.size:320}")
+    private int thumbnailSize;
+
+    @Value("${image.thumbnail.threads:2}")
+    private int thumbnailThreads;
+
+    private ExecutorService thumbnailExecutor;
+    private volatile boolean available;
+
+    public record StoredImage(String hash, MediaType contentType, long size) {
+    }
+
+    /**
+     * Where an entity's image lives: a stored image's hash, or an external URL
+     */
+    public record ImageRef(String hash, String url) {
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            log.info("Image store disabled, images are kept inline");
+        } else {
+            try {
+                Files.createDirectories(directory.resolve("tmp"));
+                available = true;
+            } catch (IOException e) {
+                log.warn("Image store unavailable, could not create {}: {}", directory.toAbsolutePath(), e.toString());
+            }
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        thumbnailExecutor = Executors.newFixedThreadPool(thumbnailThreads, runnable -> {
+            Thread thread = new Thread(runnable, "image-thumbnail-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    /**
+     * Store an image read from the stream, hashing it on the way to disk
+     *
+     * @throws RuntimeException if the stream is larger than image.store.max-size or not a PNG, JPEG, GIF or WebP image
+     */
+    public StoredImage store(InputStream in) throws IOException {
+        if (!available) {
+            throw new RuntimeException("Image uploads are unavailable");
+        }
+        Path temp = Files.createTempFile(directory.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[SNIFF_BYTES];
+            int headLength = 0;
+            long size = 0;
+
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                byte[] buffer = new byte[64 * 1024];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    size += read;
+                    if (size > maxSize.toBytes()) {
+                        throw new RuntimeException("Image too large, at most " + maxSize.toMegabytes() + "MB");
+                    }
+                    if (headLength < SNIFF_BYTES) {
+                        int copied = Math.min(read, SNIFF_BYTES - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            MediaType contentType = sniff(Arrays.copyOf(head, headLength));
+            if (contentType == null) {
+                throw new RuntimeException("Unsupported image type, expected PNG, JPEG, GIF or WebP");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = original(hash);
+            if (Files.exists(target)) {
+                // Uploaded again: restart its grace period so the sweep does not take it before it is referenced
+                touch(target);
+                return new StoredImage(hash, contentType, size);
+            }
+
+            Files.createDirectories(target.getParent());
+            // Identical bytes under the same name, so losing a race to a concurrent upload is harmless
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            thumbnailExecutor.execute(() -> createThumbnail(hash, target));
+            return new StoredImage(hash, contentType, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Store an image given inline as base64, with or without a {@code data:image/...;base64,} prefix
+     */
+    public StoredImage storeBase64(String value) {
+        String data = value.startsWith("data:") ? value.substring(value.indexOf(',') + 1) : value;
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid base64 image");
+        }
+
+        try {
+            return store(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image", e);
+        }
+    }
+
+    /**
+     * Resolve an image given by a client to what the entity keeps
+     *
+     * @param hash  hash of an image uploaded through POST /images
+     * @param value legacy image field: one of our image URLs, an inline base64 image (stored now) or an external URL
+     * @return null when neither is given
+     * @throws RuntimeException if the hash is not a stored image, or the inline image is invalid
+     */
+    public ImageRef resolve(String hash, String value) {
+        if (hash == null && value != null && value.startsWith(URL_PREFIX)) {
+            hash = value.substring(URL_PREFIX.length()).split("/", 2)[0];
+        }
+        if (hash != null) {
+            if (!exists(hash)) {
+                throw new RuntimeException("Image not found");
+            }
+            touch(original(hash));
+            return new ImageRef(hash, null);
+        }
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (isInline(value)) {
+            // Without a store, keep the picture inline as it used to be
+            return available ? new ImageRef(storeBase64(value).hash(), null) : new ImageRef(null, value);
+        }
+        return new ImageRef(null, value);
+    }
+
+    /**
+     * Image URL clients should use: the stored image if there is one, otherwise the external URL
+     */
+    public static String url(String hash, String externalUrl) {
+        return hash != null ? URL_PREFIX + hash : externalUrl;
+    }
+
+    public static String thumbnailUrl(String hash, String externalUrl) {
+        return hash != null ? URL_PREFIX + hash + "/thumbnail" : externalUrl;
+    }
+
+    /**
+     * True for image values that are the picture itself (base64 or a data URL) rather than a link to one
+     */
+    public static boolean isInline(String value) {
+        return value != null && !value.isEmpty()
+                && !value.startsWith("http://") && !value.startsWith("https://") && !value.startsWith("/");
+    }
+
+    /**
+     * False when image.store.dir could not be created at startup
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean exists(String hash) {
+        return isHash(hash) && Files.exists(original(hash));
+    }
+
+    public Optional<Path> find(String hash) {
+        return exists(hash) ? Optional.of(original(hash)) : Optional.empty();
+    }
+
+    /**
+     * The thumbnail, or empty while it is not (or cannot be) generated
+     */
+    public Optional<Path> findThumbnail(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        Path thumbnail = thumbnail(hash);
+        return Files.exists(thumbnail) ? Optional.of(thumbnail) : Optional.empty();
+    }
+
+    /**
+     * Content type of a stored blob, from its leading bytes
+     */
+    public MediaType contentType(Path blob) throws IOException {
+        byte[] head = new byte[SNIFF_BYTES];
+        int length;
+        try (InputStream in = Files.newInputStream(blob)) {
+            length = in.readNBytes(head, 0, SNIFF_BYTES);
+        }
+        MediaType type = sniff(Arrays.copyOf(head, length));
+        return type != null ? type : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * Delete stored images (with their thumbnails) that are not referenced and were last written before the grace
+     * period, plus upload leftovers in tmp older than it. Blobs are only ever created by uploads and migration, so
+     * without this an image replaced or deleted in its entity would stay on disk forever.
+     *
+     * @param referenced hashes still used by some entity
+     * @param grace      how long a new upload may stay unreferenced, i.e. the time a client has to save it
+     * @return the number of images deleted
+     */
+    public int sweep(Set<String> referenced, Duration grace) throws IOException {
+        if (!available) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(grace);
+        int deleted = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                boolean tmp = shard.getFileName().toString().equals("tmp");
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (!tmp && (!isHash(name) || referenced.contains(name))) {
+                            continue;
+                        }
+                        try {
+                            if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                                continue;
+                            }
+                            Files.deleteIfExists(file);
+                            if (!tmp) {
+                                Files.deleteIfExists(thumbnail(name));
+                                deleted++;
+                            }
+                        } catch (NoSuchFileException e) {
+                            // Removed meanwhile
+                        }
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    public static boolean isHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private void createThumbnail(String hash, Path source) {
+        try {
+            BufferedImage image = ImageIO.read(source.toFile());
+            if (image == null || Math.max(image.getWidth(), image.getHeight()) <= thumbnailSize) {
+                // Not decodable here (e.g. WebP) or already small: the original is served as its own thumbnail
+                return;
+            }
+
+            double scale = (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight());
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            boolean alpha = image.getColorModel().hasAlpha();
+
+            BufferedImage scaled = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Path temp = Files.createTempFile(directory.resolve("tmp"), "thumb-", ".part");
+            try {
+                ImageIO.write(scaled, alpha ? "png" : "jpg", temp.toFile());
+                Files.move(temp, thumbnail(hash), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not create thumbnail for image {}: {}", hash, e.getMessage());
+        }
+    }
+
+    // A blob written or referenced just now is never swept in the same grace period
+    private static void touch(Path blob) {
+        try {
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Could not touch {}: {}", blob, e.toString());
+        }
+    }
+
+    private Path original(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path thumbnail(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + THUMBNAIL_SUFFIX);
+    }
+
+    private static MediaType sniff(byte[] head) {
+        if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(head, 'R', 'I', 'F', 'F') && head.length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int... signature) {
+        if (head.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.wasteless.backend.service.image;
+
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Nightly reference sweep of the {@link ImageStore}: deletes blobs that no inventory item or profile picture
+ * points at any more (replaced, removed, or uploaded and never saved) once they are older than the grace period.
+ * The grace period must outlast the time between a client's POST /images and the save that references the hash.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageSweepJob {
+
+    private final ImageStore imageStore;
+    private final InventoryRepository inventoryRepository;
+    private final UserRepository userRepository;
+
+    @Value("${image.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.sweep.grace-period:24h}")
+    private Duration gracePeriod;
+
+    @Scheduled(cron = "${image.sweep.cron:0 30 4 * * *}")
+    public void sweep() {
+        if (!enabled || !imageStore.isAvailable()) {
+            return;
+        }
+
+        // Read before listing the files: a hash referenced after this is at most a grace period old, or touched
+        Set<String> referenced = new HashSet<>(inventoryRepository.findImageHashes());
+        referenced.addAll(userRepository.findProfilePictureHashes());
+
+        long start = System.nanoTime();
+        try {
+            int deleted = imageStore.sweep(referenced, gracePeriod);
+            log.info("Image sweep done: {} unreferenced images deleted, {} referenced, in {} ms",
+                    deleted, referenced.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Image sweep failed: {}", e.toString());
+        }
+    }
+}
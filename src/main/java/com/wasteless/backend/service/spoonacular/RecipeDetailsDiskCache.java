@@ -0,0 +1,221 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recipe detail payloads from Spoonacular kept on disk, so a restart does not mean re-fetching
+ * (and paying quota for) every popular recipe. Sits behind the in-memory details cache.
+ * Backed by a {@link SegmentStore} in recipe.disk-cache.dir; entries older than the TTL are treated as misses.
+ * Once the store grows past its size cap, or half of it is superseded records, it is compacted in the background
+ * down to the newest live entries.
+ */
+@Slf4j
+@Component
+public class RecipeDetailsDiskCache {
+
+    // Compaction keeps at most this share of the size cap, so it is not triggered again right away
+    private static final double RETAIN_RATIO = 0.75;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    @Value("${recipe.disk-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recipe.disk-cache.dir:data/recipe-details}")
+    private Path directory;
+
+    @Value("${recipe.disk-cache.max-size:256MB}")
+    private DataSize maxSize;
+
+    @Value("${recipe.disk-cache.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    @Value("${recipe.disk-cache.ttl:30d}")
+    private Duration ttl;
+
+    private volatile SegmentStore store;
+    // Compaction triggered by a write; one at a time, off the request thread and off the shared common pool
+    private ExecutorService compactionExecutor;
+
+    public RecipeDetailsDiskCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("recipe.disk-cache.segment-size must be under 2GB");
+        }
+
+        long start = System.nanoTime();
+        try {
+            store = SegmentStore.open(directory, segmentSize.toBytes());
+        } catch (IOException e) {
+            // The cache is an optimization: run without it rather than fail startup
+            log.warn("Recipe details disk cache disabled, could not open {}: {}", directory, e.getMessage());
+            return;
+        }
+        compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recipe-disk-cache-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Loaded {} cached recipe details ({} KB) from {} in {} ms",
+                store.entries(), store.sizeBytes() / 1024, directory, (System.nanoTime() - start) / 1_000_000);
+
+        Gauge.builder("recipe.details.disk-cache.entries", this, cache -> cache.store != null ? cache.store.entries() : 0)
+                .description("Recipe details held in the disk cache")
+                .register(meterRegistry);
+        Gauge.builder("recipe.details.disk-cache.size", this, cache -> cache.store != null ? cache.store.sizeBytes() : 0)
+                .description("Disk cache size on disk, including superseded records")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached details for the recipe, or null on a miss or an entry older than the TTL
+     */
+    public SpoonacularRecipe get(Long spoonacularId) {
+        SegmentStore current = store;
+        if (current == null) {
+            return null;
+        }
+
+        try {
+            SegmentStore.Record record = current.read(spoonacularId);
+            if (record == null) {
+                count("miss");
+                return null;
+            }
+            if (record.writtenAt() < expiredBefore()) {
+                count("expired");
+                return null;
+            }
+
+            count("hit");
+            return objectMapper.readValue(record.payload(), SpoonacularRecipe.class);
+        } catch (IOException e) {
+            log.warn("Could not read recipe {} from disk cache: {}", spoonacularId, e.getMessage());
+            count("error");
+            return null;
+        }
+    }
+
+    public void put(SpoonacularRecipe recipe) {
+        SegmentStore current = store;
+        if (current == null || recipe.getId() == null) {
+            return;
+        }
+
+        try {
+            current.append(recipe.getId(), System.currentTimeMillis(), objectMapper.writeValueAsBytes(recipe));
+        } catch (IOException e) {
+            log.warn("Could not write recipe {} to disk cache: {}", recipe.getId(), e.getMessage());
+            return;
+        }
+
+        if (current.sizeBytes() > maxSize.toBytes()) {
+            compactInBackground();
+        }
+    }
+
+    /**
+     * Periodic cleanup: compact once half the store is superseded records or the oldest entry has expired
+     */
+    @Scheduled(fixedDelayString = "${recipe.disk-cache.compaction-interval:1h}")
+    public void compactIfNeeded() {
+        SegmentStore current = store;
+        if (current == null) {
+            return;
+        }
+        if (current.deadBytes() * 2 > current.sizeBytes()
+                || current.sizeBytes() > maxSize.toBytes()
+                || current.oldestWrittenAt() < expiredBefore()) {
+            compact();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (compactionExecutor != null) {
+            // No interrupt: a running compaction holds the store, and close() below waits for it to finish
+            compactionExecutor.shutdown();
+        }
+        SegmentStore current = store;
+        store = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void compactInBackground() {
+        if (compacting.compareAndSet(false, true)) {
+            try {
+                compactionExecutor.execute(() -> {
+                    try {
+                        compact();
+                    } finally {
+                        compacting.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                compacting.set(false);
+            }
+        }
+    }
+
+    private void compact() {
+        SegmentStore current = store;
+        if (current == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long before = current.sizeBytes();
+        try {
+            int dropped = current.compact(expiredBefore(), (long) (maxSize.toBytes() * RETAIN_RATIO));
+            log.info("Compacted recipe details disk cache from {} KB to {} KB, dropped {} entries in {} ms",
+                    before / 1024, current.sizeBytes() / 1024, dropped, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Recipe details disk cache compaction failed: {}", e.getMessage());
+        }
+    }
+
+    private long expiredBefore() {
+        return System.currentTimeMillis() - ttl.toMillis();
+    }
+
+    private void count(String result) {
+        Counter.builder("recipe.details.disk-cache")
+                .description("Recipe details disk cache lookups")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,343 @@
+package com.wasteless.backend.service.spoonacular;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only key/value log on disk, keyed by long, split into numbered segment files.
+ * <p>
+ * Record layout: magic (4) | crc32 (4) | key (8) | writtenAt epoch millis (8) | length (4) | payload.
+ * The CRC covers everything after itself, so a record stays valid when it is copied to another segment.
+ * <p>
+ * Only the location of the latest record per key is kept in memory; payloads are read from memory-mapped
+ * segments and checked against their CRC. Each segment is mapped once at its full size, so appends do not force a
+ * remap: a new segment file is extended to segmentSize up front (sparse on common filesystems) and its unwritten
+ * tail reads as zeros, which marks the end of its records. Opening a store scans record headers to rebuild that index;
+ * the last segment is also checked record by record and cut at the first torn or corrupt write.
+ * Superseded and expired records stay on disk until {@link #compact} rewrites the live ones.
+ * Writes and compaction are serialized; reads are lock-free.
+ */
+@Slf4j
+class SegmentStore implements Closeable {
+
+    static final int HEADER_SIZE = 28;
+
+    private static final int MAGIC = 0x57534731;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Map<Long, Location> index = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+    private volatile long totalBytes;
+    private volatile long deadBytes;
+
+    record Record(long key, long writtenAt, byte[] payload) {
+    }
+
+    private record Location(Segment segment, int offset, int length, long writtenAt) {
+
+        int recordSize() {
+            return HEADER_SIZE + length;
+        }
+    }
+
+    private static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final long mapSize;
+        private volatile MappedByteBuffer mapped;
+        // End of the records; the file itself may be longer
+        private volatile long size;
+
+        private Segment(long id, Path path, long mapSize) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.mapSize = mapSize;
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        /**
+         * Mapping that covers at least the first {@code end} bytes. Mapped once at the segment size; only a record
+         * larger than a whole segment needs a bigger mapping.
+         */
+        private MappedByteBuffer view(long end) throws IOException {
+            MappedByteBuffer current = mapped;
+            if (current == null || current.capacity() < end) {
+                synchronized (this) {
+                    current = mapped;
+                    if (current == null || current.capacity() < end) {
+                        // Mapping past the end of the file extends it, with zeros
+                        current = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(mapSize, end));
+                        mapped = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close cache segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private SegmentStore(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Open the store in {@code directory}, creating it if needed, and rebuild the index from the segments there
+     */
+    static SegmentStore open(Path directory, long segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        SegmentStore store = new SegmentStore(directory, segmentSize);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> segmentId(path) >= 0)
+                    .sorted(Comparator.comparingLong(SegmentStore::segmentId))
+                    .toList();
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = new Segment(segmentId(files.get(i)), files.get(i), segmentSize);
+            store.segments.put(segment.id, segment);
+            store.load(segment, i == files.size() - 1);
+        }
+
+        if (store.segments.isEmpty()) {
+            store.roll();
+        } else {
+            store.active = store.segments.lastEntry().getValue();
+        }
+        return store;
+    }
+
+    /**
+     * Latest record for the key, or null if there is none or it fails its CRC check (it is then dropped)
+     */
+    Record read(long key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = location.segment().view((long) location.offset() + location.recordSize());
+        if (!valid(buffer, location.offset(), location.length())) {
+            log.warn("Dropping corrupt cache record for key {} in {}", key, location.segment().path);
+            index.remove(key, location);
+            return null;
+        }
+
+        byte[] payload = new byte[location.length()];
+        buffer.get(location.offset() + HEADER_SIZE, payload, 0, payload.length);
+        return new Record(key, location.writtenAt(), payload);
+    }
+
+    /**
+     * Append a record, superseding any earlier one for the key
+     */
+    synchronized void append(long key, long writtenAt, byte[] payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(MAGIC)
+                .putInt(0)
+                .putLong(key)
+                .putLong(writtenAt)
+                .putInt(payload.length)
+                .put(payload);
+        record.putInt(4, crc(record, 8, record.capacity() - 8));
+        record.flip();
+
+        Location location = write(record, payload.length, writtenAt);
+        Location previous = index.put(key, location);
+        if (previous != null) {
+            deadBytes += previous.recordSize();
+        }
+    }
+
+    /**
+     * Rewrite the live records into fresh segments and delete the old ones.
+     * Records written before {@code expiredBefore} are dropped, and when the live records exceed
+     * {@code retainBytes} the oldest are dropped until they fit.
+     *
+     * @return number of records dropped
+     */
+    synchronized int compact(long expiredBefore, long retainBytes) throws IOException {
+        List<Map.Entry<Long, Location>> live = new ArrayList<>(index.entrySet());
+        live.sort(Comparator.comparingLong((Map.Entry<Long, Location> entry) -> entry.getValue().writtenAt())
+                .reversed());
+
+        List<Segment> old = new ArrayList<>(segments.values());
+        roll();
+
+        int dropped = 0;
+        long retained = 0;
+        for (Map.Entry<Long, Location> entry : live) {
+            Location location = entry.getValue();
+            ByteBuffer buffer = location.segment().view((long) location.offset() + location.recordSize());
+            boolean keep = location.writtenAt() >= expiredBefore
+                    && retained + location.recordSize() <= retainBytes
+                    && valid(buffer, location.offset(), location.length());
+            if (!keep) {
+                index.remove(entry.getKey(), location);
+                dropped++;
+                continue;
+            }
+
+            ByteBuffer record = buffer.slice(location.offset(), location.recordSize());
+            index.replace(entry.getKey(), location, write(record, location.length(), location.writtenAt()));
+            retained += location.recordSize();
+        }
+
+        // Readers holding a location in an old segment keep their mapping until it is garbage collected
+        for (Segment segment : old) {
+            segments.remove(segment.id);
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+        totalBytes = segments.values().stream().mapToLong(segment -> segment.size).sum();
+        deadBytes = 0;
+        return dropped;
+    }
+
+    int entries() {
+        return index.size();
+    }
+
+    long sizeBytes() {
+        return totalBytes;
+    }
+
+    long oldestWrittenAt() {
+        return index.values().stream().mapToLong(Location::writtenAt).min().orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * Bytes on disk taken by superseded records
+     */
+    long deadBytes() {
+        return deadBytes;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(Segment::close);
+    }
+
+    private Location write(ByteBuffer record, int length, long writtenAt) throws IOException {
+        int recordSize = record.remaining();
+        if (active.size > 0 && active.size + recordSize > segmentSize) {
+            roll();
+        }
+
+        Segment segment = active;
+        long offset = segment.size;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += segment.channel.write(record, position);
+        }
+        segment.size = position;
+        totalBytes += recordSize;
+        return new Location(segment, (int) offset, length, writtenAt);
+    }
+
+    private void roll() throws IOException {
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment segment = new Segment(id, directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)),
+                segmentSize);
+        segment.view(segmentSize);
+        segments.put(id, segment);
+        active = segment;
+    }
+
+    /**
+     * Index every record in the segment; the last segment is verified and truncated after its last good record.
+     * Zeros where the next record would start are the unwritten part of the segment, not damage.
+     */
+    private void load(Segment segment, boolean last) throws IOException {
+        long fileSize = segment.size;
+        ByteBuffer buffer = fileSize > 0 ? segment.view(fileSize) : ByteBuffer.allocate(0);
+        int offset = 0;
+        while (offset + HEADER_SIZE <= fileSize) {
+            int length = buffer.getInt(offset + 24);
+            boolean complete = buffer.getInt(offset) == MAGIC
+                    && length >= 0
+                    && (long) offset + HEADER_SIZE + length <= fileSize;
+            if (!complete || (last && !valid(buffer, offset, length))) {
+                break;
+            }
+
+            long key = buffer.getLong(offset + 8);
+            Location previous = index.put(key, new Location(segment, offset, length, buffer.getLong(offset + 16)));
+            if (previous != null) {
+                deadBytes += previous.recordSize();
+            }
+            offset += HEADER_SIZE + length;
+        }
+
+        boolean unwritten = offset + Integer.BYTES > fileSize || buffer.getInt(offset) == 0;
+        if (offset < fileSize && !unwritten) {
+            log.warn("Cache segment {} has unreadable bytes after offset {}, {}", segment.path, offset,
+                    last ? "truncating" : "ignoring");
+            if (last) {
+                segment.channel.truncate(offset);
+                segment.mapped = null;
+            }
+        }
+        segment.size = offset;
+        totalBytes += segment.size;
+    }
+
+    private static boolean valid(ByteBuffer buffer, int offset, int length) {
+        return buffer.getInt(offset) == MAGIC
+                && buffer.getInt(offset + 4) == crc(buffer, offset + 8, HEADER_SIZE - 8 + length);
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.CacheConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around Spoonacular with a stale-while-revalidate fallback.
+ * Every good response is kept as the last known good value for its request key; when the breaker is open
+ * (or the upstream call fails for a reason other than a client error) callers get that stale value instead of an error.
+ * Requests answered from stale data are queued and replayed in the background, which doubles as the recovery probe
+ * once the breaker moves to half-open.
+ * State and transitions are exposed by the resilience4j actuator endpoints (circuitbreakers, circuitbreakerevents).
+ */
+@Slf4j
+@Component
+public class SpoonacularCircuitBreaker {
+
+    public static final String NAME = "spoonacular";
+
+    // Requests waiting to be revalidated; oldest dropped first
+    private static final int MAX_PENDING_REVALIDATIONS = 100;
+
+    private final CircuitBreaker circuitBreaker;
+    private final CacheManager cacheManager;
+    private final Counter staleServedCounter;
+    private final Counter revalidatedCounter;
+    private final Map<String, Supplier<Mono<Object>>> pendingRevalidation = new LinkedHashMap<>();
+
+    public SpoonacularCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry,
+                                     CacheManager cacheManager,
+                                     MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME);
+        this.cacheManager = cacheManager;
+        this.staleServedCounter = Counter.builder("spoonacular.stale.served")
+                .description("Spoonacular responses served from the stale cache")
+                .register(meterRegistry);
+        this.revalidatedCounter = Counter.builder("spoonacular.stale.revalidated")
+                .description("Stale Spoonacular responses refreshed in the background")
+                .register(meterRegistry);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Spoonacular circuit breaker: {}", event.getStateTransition()));
+    }
+
+    /**
+     * Run an upstream call through the breaker, falling back to the last good response for the same key
+     *
+     * @param key      normalized request key
+     * @param upstream the call; subscribed lazily, and again later if it has to be revalidated
+     */
+    public <T> Mono<T> execute(String key, Class<T> responseType, Supplier<Mono<T>> upstream) {
+        return guarded(key, upstream)
+                .onErrorResume(this::canServeStale, e -> {
+                    T stale = staleCache().get(key, responseType);
+                    if (stale == null) {
+                        return Mono.error(e);
+                    }
+
+                    staleServedCounter.increment();
+                    scheduleRevalidation(key, upstream);
+                    return Mono.just(stale);
+                });
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Replay one queued request while the breaker is half-open (or closed, to refresh stale entries)
+     * A success refreshes the stale entry and counts toward closing the breaker.
+     */
+    @Scheduled(fixedDelayString = "${spoonacular.circuit-breaker.probe-interval:15s}")
+    public void revalidate() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            return;
+        }
+
+        Map.Entry<String, Supplier<Mono<Object>>> next = pollRevalidation();
+        if (next == null) {
+            return;
+        }
+
+        guarded(next.getKey(), next.getValue())
+                .doOnNext(value -> revalidatedCounter.increment())
+                .doOnError(e -> log.debug("Revalidation of {} failed: {}", next.getKey(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+    }
+
+    private <T> Mono<T> guarded(String key, Supplier<Mono<T>> upstream) {
+        return Mono.defer(upstream)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnNext(value -> staleCache().put(key, value));
+    }
+
+    private boolean canServeStale(Throwable e) {
+        if (e instanceof CallNotPermittedException || e instanceof SpoonacularQuotaExceededException) {
+            return true;
+        }
+        // A 4xx means the request itself is wrong; an old answer would hide that
+        return !(e instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is4xxClientError());
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> void scheduleRevalidation(String key, Supplier<Mono<T>> upstream) {
+        pendingRevalidation.remove(key);
+        pendingRevalidation.put(key, (Supplier<Mono<Object>>) (Supplier<?>) upstream);
+        if (pendingRevalidation.size() > MAX_PENDING_REVALIDATIONS) {
+            Iterator<String> oldest = pendingRevalidation.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private synchronized Map.Entry<String, Supplier<Mono<Object>>> pollRevalidation() {
+        Iterator<Map.Entry<String, Supplier<Mono<Object>>>> it = pendingRevalidation.entrySet().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, Supplier<Mono<Object>>> first = it.next();
+        it.remove();
+        return Map.entry(first.getKey(), first.getValue());
+    }
+
+    private Cache staleCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.SPOONACULAR_STALE_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CacheConfig.SPOONACULAR_STALE_CACHE);
+        }
+        return cache;
+    }
+}
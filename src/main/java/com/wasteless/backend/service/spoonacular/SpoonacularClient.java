@@ -0,0 +1,231 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularSearchResponse;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Typed access to the Spoonacular endpoints the app uses.
+ * Every call is shared with identical requests already in flight, passes the circuit breaker and is charged
+ * against the rate limiter; only the call that actually goes upstream is timed, as
+ * spoonacular.client.requests{endpoint,status} with a latency histogram.
+ * The apiKey comes from {@link SpoonacularKeyPool} per call and is not part of the request key.
+ */
+@Component
+public class SpoonacularClient {
+
+    private final WebClient spoonacularWebClient;
+    private final SpoonacularConfig spoonacularConfig;
+    private final SpoonacularRequestCoalescer requestCoalescer;
+    private final SpoonacularRateLimiter rateLimiter;
+    private final SpoonacularCircuitBreaker circuitBreaker;
+    private final SpoonacularKeyPool keyPool;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 402/429 for one key; still a quota error for callers (429 response, ignored by the circuit breaker)
+     */
+    private static class KeyRejectedException extends SpoonacularQuotaExceededException {
+
+        KeyRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    public SpoonacularClient(WebClient spoonacularWebClient,
+                             SpoonacularConfig spoonacularConfig,
+                             SpoonacularRequestCoalescer requestCoalescer,
+                             SpoonacularRateLimiter rateLimiter,
+                             SpoonacularCircuitBreaker circuitBreaker,
+                             SpoonacularKeyPool keyPool,
+                             MeterRegistry meterRegistry) {
+        this.spoonacularWebClient = spoonacularWebClient;
+        this.spoonacularConfig = spoonacularConfig;
+        this.requestCoalescer = requestCoalescer;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.keyPool = keyPool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * GET /recipes/complexSearch with recipe information and ingredients filled in
+     * Takes the canonical filters, so the results match the search cache entry they are stored under.
+     */
+    public Mono<List<SpoonacularRecipe>> complexSearch(SpoonacularSearchCache.SearchKey key, int number) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("number", String.valueOf(number));
+        params.add("addRecipeInformation", "true");
+        params.add("fillIngredients", "true");
+
+        if (key.query() != null) {
+            params.add("query", key.query());
+        }
+        if (key.cuisine() != null) {
+            params.add("cuisine", key.cuisine());
+        }
+        if (key.diet() != null) {
+            params.add("diet", key.diet());
+        }
+        if (key.maxReadyTime() != null) {
+            params.add("maxReadyTime", String.valueOf(key.maxReadyTime()));
+        }
+
+        return get("complexSearch", "/recipes/complexSearch", params, SpoonacularSearchResponse.class)
+                .map(response -> response.getResults() != null ?
+                        response.getResults() : List.<SpoonacularRecipe>of())
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * GET /recipes/findByIngredients, ignoring pantry staples
+     *
+     * @param maximizeUsed rank by most used ingredients (Spoonacular ranking=1) instead of fewest missing (ranking=2)
+     */
+    public Mono<List<SpoonacularRecipe>> findByIngredients(List<String> ingredients, int number, boolean maximizeUsed) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("ingredients", String.join(",", ingredients));
+        params.add("number", String.valueOf(number));
+        params.add("ranking", maximizeUsed ? "1" : "2");
+        params.add("ignorePantry", "true");
+
+        return get("findByIngredients", "/recipes/findByIngredients", params, SpoonacularRecipe[].class)
+                .map(Arrays::asList)
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * GET /recipes/{id}/information
+     */
+    public Mono<SpoonacularRecipe> information(Long spoonacularId) {
+        return get("information", "/recipes/" + spoonacularId + "/information", new LinkedMultiValueMap<>(),
+                SpoonacularRecipe.class);
+    }
+
+    /**
+     * GET /recipes/informationBulk for several recipes in one call
+     */
+    public Mono<List<SpoonacularRecipe>> informationBulk(Collection<Long> spoonacularIds) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("ids", spoonacularIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+
+        return get("informationBulk", "/recipes/informationBulk", params, SpoonacularRecipe[].class)
+                .map(Arrays::asList)
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * Only the call that actually goes upstream passes the circuit breaker and is charged against the rate limiter;
+     * if the breaker is open or the call fails, the last good response for the same request is served when there is one.
+     * A call rejected with 402/429 takes its key out of rotation and is retried on another key while one is left.
+     */
+    private <T> Mono<T> get(String endpoint, String path, MultiValueMap<String, String> params, Class<T> responseType) {
+        String key = SpoonacularRequestCoalescer.requestKey(path, params);
+
+        return requestCoalescer.execute(key, () -> circuitBreaker.execute(key, responseType, () ->
+                Mono.defer(() -> rateLimiter.acquire(endpoint, params)
+                                .flatMap(apiKey -> exchange(endpoint, path, params, responseType, apiKey)))
+                        .retryWhen(Retry.max(Math.max(keyPool.size() - 1, 0))
+                                .filter(e -> e instanceof KeyRejectedException && keyPool.hasAvailableKey())
+                                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                        .mapNotNull(HttpEntity::getBody)));
+    }
+
+    private <T> Mono<ResponseEntity<T>> exchange(String endpoint, String path, MultiValueMap<String, String> params,
+                                                 Class<T> responseType, SpoonacularKeyPool.ApiKey apiKey) {
+        return timed(endpoint, apiKey, spoonacularWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path(path)
+                                .queryParam("apiKey", apiKey.value())
+                                .queryParams(params)
+                                .build())
+                        .retrieve()
+                        .toEntity(responseType)
+                        .timeout(spoonacularConfig.getTimeout()))
+                .doOnNext(response -> rateLimiter.recordResponse(endpoint, params, apiKey, response.getHeaders()))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode().value() == HttpStatus.PAYMENT_REQUIRED.value()) {
+                        keyPool.markExhausted(apiKey);
+                        return new KeyRejectedException("Spoonacular daily quota exceeded");
+                    }
+                    if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        keyPool.markRateLimited(apiKey, retryAfter(e));
+                        return new KeyRejectedException("Spoonacular rate limit reached, try again shortly");
+                    }
+                    return e;
+                });
+    }
+
+    /**
+     * Time one upstream exchange, tagged with the HTTP status, "timeout" or "io_error"
+     */
+    private <T> Mono<ResponseEntity<T>> timed(String endpoint, SpoonacularKeyPool.ApiKey apiKey,
+                                              Mono<ResponseEntity<T>> exchange) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return exchange
+                    .doOnSuccess(response -> stop(sample, endpoint, apiKey,
+                            response != null ? String.valueOf(response.getStatusCode().value()) : "empty"))
+                    .doOnError(e -> stop(sample, endpoint, apiKey, status(e)))
+                    .doOnCancel(() -> stop(sample, endpoint, apiKey, "cancelled"));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, SpoonacularKeyPool.ApiKey apiKey, String status) {
+        keyPool.recordCall(apiKey, status);
+        sample.stop(Timer.builder("spoonacular.client.requests")
+                .description("Spoonacular API calls by endpoint and response status")
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static Duration retryAfter(WebClientResponseException e) {
+        String retryAfter = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return retryAfter != null ? Duration.ofSeconds(Long.parseLong(retryAfter.trim())) : null;
+        } catch (NumberFormatException ignored) {
+            // HTTP-date form; fall back to the configured cooldown
+            return null;
+        }
+    }
+
+    private static String status(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return String.valueOf(responseException.getStatusCode().value());
+        }
+        // Overall call timeout, Netty response timeout, or connect timeout (the latter two wrapped by WebClient)
+        if (e instanceof TimeoutException
+                || e.getCause() instanceof ReadTimeoutException
+                || e.getCause() instanceof ConnectTimeoutException) {
+            return "timeout";
+        }
+        return "io_error";
+    }
+}
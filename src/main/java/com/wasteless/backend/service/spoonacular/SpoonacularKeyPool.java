@@ -0,0 +1,308 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The Spoonacular API keys calls are spread over (spoonacular.api.keys, or the single spoonacular.api.key).
+ * Each call goes out on the available key with the most quota left, so the keys drain evenly.
+ * Quota is tracked per key, starting from the plan's daily quota and resynced from the X-API-Quota-* headers.
+ * Each key also has its own token bucket (spoonacular.rate-limit.*), since Spoonacular rate limits every key on its
+ * own: a call goes out on the key that can take it soonest, so a key being skipped lends no capacity to the others.
+ * A key answered with 402 (quota spent) is skipped until the daily reset at midnight UTC; one answered with 429
+ * (rate limited) until its Retry-After, or the configured cooldown.
+ * Metrics are tagged with the masked key: spoonacular.key.calls{key,status}, spoonacular.key.quota.*{key} and
+ * spoonacular.key.ratelimit.tokens{key}.
+ */
+@Slf4j
+@Component
+public class SpoonacularKeyPool {
+
+    private final SpoonacularConfig config;
+    private final MeterRegistry meterRegistry;
+    private final List<KeyState> keys;
+
+    private Instant quotaResetAt;
+
+    /**
+     * A key handed out for one call; {@link #masked()} is safe to log and tag metrics with
+     */
+    public record ApiKey(String value, String masked) {
+
+        @Override
+        public String toString() {
+            return masked;
+        }
+    }
+
+    /**
+     * A key reserved for one call, and how long the call has to wait for the key's token bucket
+     */
+    public record Reservation(ApiKey key, Duration delay) {
+    }
+
+    private static final class KeyState {
+
+        private final ApiKey key;
+        private double quotaLeft;
+        private double quotaUsed;
+        private Instant blockedUntil = Instant.MIN;
+        // Token bucket, in points; volatile for the gauge, written under the pool's monitor
+        private volatile double tokens;
+        private long lastRefillNanos;
+
+        private KeyState(ApiKey key, double quotaLeft, double tokens) {
+            this.key = key;
+            this.quotaLeft = quotaLeft;
+            this.tokens = tokens;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private boolean available(Instant now) {
+            return !now.isBefore(blockedUntil);
+        }
+    }
+
+    public SpoonacularKeyPool(SpoonacularConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.quotaResetAt = nextReset();
+
+        List<KeyState> states = new ArrayList<>();
+        for (String value : config.getApiKeys()) {
+            KeyState state = new KeyState(new ApiKey(value, mask(value)), config.getDailyQuota(),
+                    config.getRateLimitBucketCapacity());
+            states.add(state);
+
+            Gauge.builder("spoonacular.key.quota.remaining", state, s -> s.quotaLeft)
+                    .description("Spoonacular points left today on this key")
+                    .tag("key", state.key.masked())
+                    .register(meterRegistry);
+            Gauge.builder("spoonacular.key.quota.used", state, s -> s.quotaUsed)
+                    .description("Spoonacular points used today on this key, as reported by the API")
+                    .tag("key", state.key.masked())
+                    .register(meterRegistry);
+            Gauge.builder("spoonacular.key.available", state, s -> s.available(Instant.now()) ? 1 : 0)
+                    .description("1 while the key is not being skipped after a 402/429")
+                    .tag("key", state.key.masked())
+                    .register(meterRegistry);
+            Gauge.builder("spoonacular.key.ratelimit.tokens", state, s -> s.tokens)
+                    .description("Points currently available in this key's token bucket")
+                    .tag("key", state.key.masked())
+                    .register(meterRegistry);
+        }
+        this.keys = Collections.unmodifiableList(states);
+        if (keys.isEmpty()) {
+            log.warn("No Spoonacular API key configured (spoonacular.api.keys / spoonacular.api.key)");
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Pick the available key with the most quota left and charge it {@code cost} points
+     *
+     * @throws SpoonacularQuotaExceededException when no key is available or has enough quota
+     */
+    public synchronized ApiKey reserve(double cost) {
+        resetQuotaIfDue();
+        Instant now = Instant.now();
+
+        KeyState best = null;
+        for (KeyState state : keys) {
+            if (state.available(now) && state.quotaLeft >= cost
+                    && (best == null || state.quotaLeft > best.quotaLeft)) {
+                best = state;
+            }
+        }
+        if (best == null) {
+            throw new SpoonacularQuotaExceededException(unavailableMessage(now));
+        }
+
+        best.quotaLeft -= cost;
+        return best.key;
+    }
+
+    /**
+     * Pick the available key whose token bucket admits the call soonest (the most quota left among equals), charge
+     * its bucket and quota {@code cost} points, and say how long the call has to wait for the bucket.
+     * The bucket may go negative; the wait pays it back.
+     *
+     * @return empty when every key with quota would make the call wait longer than {@code maxWait}
+     * @throws SpoonacularQuotaExceededException when no key is available or has enough quota
+     */
+    public synchronized Optional<Reservation> reserve(double cost, Duration maxWait) {
+        resetQuotaIfDue();
+        Instant now = Instant.now();
+        long nowNanos = System.nanoTime();
+
+        KeyState best = null;
+        double bestDeficit = 0;
+        for (KeyState state : keys) {
+            if (!state.available(now) || state.quotaLeft < cost) {
+                continue;
+            }
+            refill(state, nowNanos);
+            double deficit = Math.max(cost - state.tokens, 0);
+            if (best == null || deficit < bestDeficit
+                    || (deficit == bestDeficit && state.quotaLeft > best.quotaLeft)) {
+                best = state;
+                bestDeficit = deficit;
+            }
+        }
+        if (best == null) {
+            throw new SpoonacularQuotaExceededException(unavailableMessage(now));
+        }
+
+        Duration wait = bestDeficit <= 0 ? Duration.ZERO
+                : Duration.ofNanos((long) (bestDeficit / config.getRateLimitRefillPointsPerSecond() * 1_000_000_000L));
+        if (wait.compareTo(maxWait) > 0) {
+            return Optional.empty();
+        }
+
+        best.tokens -= cost;
+        best.quotaLeft -= cost;
+        return Optional.of(new Reservation(best.key, wait));
+    }
+
+    /**
+     * Points in the token buckets of the keys that are not being skipped, as of their last refill
+     */
+    public synchronized double getAvailableTokens() {
+        Instant now = Instant.now();
+        return keys.stream()
+                .filter(state -> state.available(now))
+                .mapToDouble(state -> Math.max(state.tokens, 0))
+                .sum();
+    }
+
+    /**
+     * Resync a key's quota from the X-API-Quota-Used / X-API-Quota-Left headers of its response
+     */
+    public synchronized void recordQuota(ApiKey key, Double used, Double left) {
+        KeyState state = state(key);
+        if (used != null) {
+            state.quotaUsed = used;
+        }
+        if (left != null) {
+            state.quotaLeft = left;
+        }
+    }
+
+    /**
+     * Spoonacular answered 402: the key's daily quota is spent, skip it until the reset
+     */
+    public synchronized void markExhausted(ApiKey key) {
+        KeyState state = state(key);
+        state.quotaLeft = 0;
+        state.blockedUntil = quotaResetAt;
+        log.warn("Spoonacular key {} out of quota, skipping it until {}", key, quotaResetAt);
+    }
+
+    /**
+     * Spoonacular answered 429: skip the key for {@code retryAfter}, or the configured cooldown when not given
+     */
+    public synchronized void markRateLimited(ApiKey key, Duration retryAfter) {
+        Duration cooldown = retryAfter != null ? retryAfter : config.getKeyRateLimitCooldown();
+        state(key).blockedUntil = Instant.now().plus(cooldown);
+        log.warn("Spoonacular key {} rate limited, skipping it for {}", key, cooldown);
+    }
+
+    /**
+     * Count one upstream call made with the key, by response status
+     */
+    public void recordCall(ApiKey key, String status) {
+        Counter.builder("spoonacular.key.calls")
+                .description("Spoonacular API calls per key")
+                .tag("key", key.masked())
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Quota left today across the keys that are not being skipped
+     */
+    public synchronized double getRemainingQuota() {
+        resetQuotaIfDue();
+        Instant now = Instant.now();
+        return keys.stream()
+                .filter(state -> state.available(now))
+                .mapToDouble(state -> Math.max(state.quotaLeft, 0))
+                .sum();
+    }
+
+    public synchronized double getUsedQuota() {
+        return keys.stream().mapToDouble(state -> state.quotaUsed).sum();
+    }
+
+    /**
+     * True if some key could take a call right now, i.e. a rejected call is worth retrying on another key
+     */
+    public synchronized boolean hasAvailableKey() {
+        Instant now = Instant.now();
+        return keys.stream().anyMatch(state -> state.available(now) && state.quotaLeft > 0);
+    }
+
+    private String unavailableMessage(Instant now) {
+        if (keys.isEmpty()) {
+            return "No Spoonacular API key configured";
+        }
+        boolean rateLimited = keys.stream()
+                .anyMatch(state -> !state.available(now) && state.blockedUntil.isBefore(quotaResetAt));
+        return rateLimited
+                ? "Spoonacular rate limit reached, try again shortly"
+                : "Spoonacular daily quota exceeded, resets at " + quotaResetAt;
+    }
+
+    private KeyState state(ApiKey key) {
+        for (KeyState state : keys) {
+            if (state.key.equals(key)) {
+                return state;
+            }
+        }
+        throw new IllegalArgumentException("Unknown Spoonacular key " + key);
+    }
+
+    private void refill(KeyState state, long nowNanos) {
+        double elapsedSeconds = (nowNanos - state.lastRefillNanos) / 1_000_000_000.0;
+        state.tokens = Math.min(config.getRateLimitBucketCapacity(),
+                state.tokens + elapsedSeconds * config.getRateLimitRefillPointsPerSecond());
+        state.lastRefillNanos = nowNanos;
+    }
+
+    private void resetQuotaIfDue() {
+        if (!Instant.now().isBefore(quotaResetAt)) {
+            for (KeyState state : keys) {
+                state.quotaLeft = config.getDailyQuota();
+                state.quotaUsed = 0;
+            }
+            quotaResetAt = nextReset();
+        }
+    }
+
+    // Spoonacular quotas reset at midnight UTC
+    private static Instant nextReset() {
+        return LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    static String mask(String key) {
+        return key.length() <= 4 ? "****" : "****" + key.substring(key.length() - 4);
+    }
+}
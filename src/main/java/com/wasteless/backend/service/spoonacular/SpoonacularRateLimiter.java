@@ -0,0 +1,173 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quota-aware token bucket in front of Spoonacular.
+ * Each call is charged its estimated point cost against the API key {@link SpoonacularKeyPool} picks for it:
+ * the key's token bucket shapes bursts, and its daily quota (resynced from the X-API-Quota-* headers Spoonacular
+ * returns) stops calls before the API starts failing. Bucket capacity and refill rate apply to each key.
+ * Estimates per endpoint are corrected from the points Spoonacular actually reports.
+ */
+@Component
+public class SpoonacularRateLimiter {
+
+    static final String QUOTA_REQUEST_HEADER = "X-API-Quota-Request";
+    static final String QUOTA_USED_HEADER = "X-API-Quota-Used";
+    static final String QUOTA_LEFT_HEADER = "X-API-Quota-Left";
+
+    // Weight given to the latest observed cost when correcting an endpoint's estimate
+    private static final double CORRECTION_SMOOTHING = 0.2;
+
+    private final SpoonacularConfig config;
+    private final SpoonacularKeyPool keyPool;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Double> costCorrection = new ConcurrentHashMap<>();
+
+    public SpoonacularRateLimiter(SpoonacularConfig config, SpoonacularKeyPool keyPool, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.keyPool = keyPool;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("spoonacular.quota.remaining", this, SpoonacularRateLimiter::getRemainingQuota)
+                .description("Spoonacular points left today")
+                .register(meterRegistry);
+        Gauge.builder("spoonacular.quota.used", keyPool, SpoonacularKeyPool::getUsedQuota)
+                .description("Spoonacular points used today, as reported by the API")
+                .register(meterRegistry);
+        Gauge.builder("spoonacular.ratelimit.tokens", keyPool, SpoonacularKeyPool::getAvailableTokens)
+                .description("Points currently available in the token buckets of the usable keys")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve the points for one call on an API key, delaying it if the bucket is short
+     * Errors with SpoonacularQuotaExceededException when no key has quota left
+     * or the wait would exceed spoonacular.rate-limit.max-wait.
+     */
+    public Mono<SpoonacularKeyPool.ApiKey> acquire(String endpoint, MultiValueMap<String, String> params) {
+        if (!config.isRateLimitEnabled()) {
+            // Still skip keys Spoonacular has rejected
+            return Mono.fromCallable(() -> keyPool.reserve(0));
+        }
+
+        double cost = estimateCost(endpoint, params);
+        SpoonacularKeyPool.Reservation reservation;
+        try {
+            reservation = keyPool.reserve(cost, config.getRateLimitMaxWait()).orElse(null);
+        } catch (SpoonacularQuotaExceededException e) {
+            throttled(endpoint, "quota");
+            return Mono.error(e);
+        }
+        if (reservation == null) {
+            throttled(endpoint, "rate");
+            return Mono.error(new SpoonacularQuotaExceededException(
+                    "Spoonacular rate limit reached, try again shortly"));
+        }
+
+        SpoonacularKeyPool.ApiKey key = reservation.key();
+        Duration wait = reservation.delay();
+        if (wait.isZero()) {
+            return Mono.just(key);
+        }
+        Counter.builder("spoonacular.ratelimit.delayed")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        return Mono.delay(wait).thenReturn(key);
+    }
+
+    /**
+     * Resync the key's quota and per-endpoint cost estimates from a Spoonacular response
+     */
+    public void recordResponse(String endpoint, MultiValueMap<String, String> params,
+                               SpoonacularKeyPool.ApiKey key, HttpHeaders headers) {
+        Double requestPoints = parseHeader(headers, QUOTA_REQUEST_HEADER);
+        Double used = parseHeader(headers, QUOTA_USED_HEADER);
+        Double left = parseHeader(headers, QUOTA_LEFT_HEADER);
+
+        if (requestPoints != null) {
+            DistributionSummary.builder("spoonacular.quota.request.points")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(requestPoints);
+
+            double observedRatio = requestPoints / baseCost(endpoint, params);
+            costCorrection.merge(endpoint, observedRatio, (previous, latest) ->
+                    previous + CORRECTION_SMOOTHING * (latest - previous));
+        }
+
+        keyPool.recordQuota(key, used, left);
+    }
+
+    /**
+     * Quota left today across all usable API keys
+     */
+    public double getRemainingQuota() {
+        return keyPool.getRemainingQuota();
+    }
+
+    double estimateCost(String endpoint, MultiValueMap<String, String> params) {
+        return baseCost(endpoint, params) * costCorrection.getOrDefault(endpoint, 1.0);
+    }
+
+    /**
+     * Point cost per Spoonacular's published pricing
+     */
+    private double baseCost(String endpoint, MultiValueMap<String, String> params) {
+        int number = parseInt(params.getFirst("number"), 10);
+        return switch (endpoint) {
+            case "informationBulk" -> {
+                String ids = params.getFirst("ids");
+                int count = ids == null || ids.isEmpty() ? 1 : ids.split(",").length;
+                yield 1 + 0.5 * (count - 1);
+            }
+            case "findByIngredients" -> 1 + 0.01 * number;
+            case "complexSearch" -> 1 + 0.01 * number
+                    + ("true".equals(params.getFirst("addRecipeInformation")) ? 0.025 * number : 0)
+                    + ("true".equals(params.getFirst("fillIngredients")) ? 0.025 * number : 0);
+            default -> 1;
+        };
+    }
+
+    private void throttled(String endpoint, String reason) {
+        Counter.builder("spoonacular.ratelimit.throttled")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Double parseHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.wasteless.backend.service.spoonacular;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Single-flight table for Spoonacular GETs.
+ * Concurrent callers asking for the same normalized request (path + sorted query params, apiKey excluded)
+ * share one pending upstream response instead of each triggering their own call.
+ */
+@Component
+public class SpoonacularRequestCoalescer {
+
+    private static final String API_KEY_PARAM = "apiKey";
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter dispatchedCounter;
+    private final Counter coalescedCounter;
+
+    public SpoonacularRequestCoalescer(MeterRegistry meterRegistry) {
+        this.dispatchedCounter = Counter.builder("spoonacular.requests.dispatched")
+                .description("Spoonacular requests sent upstream")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("spoonacular.requests.coalesced")
+                .description("Spoonacular requests that joined an identical in-flight request")
+                .register(meterRegistry);
+        Gauge.builder("spoonacular.requests.inflight", inFlight, Map::size)
+                .description("Distinct Spoonacular requests currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the upstream call, or join the identical one already in flight.
+     * The upstream Mono is only created (and subscribed) by the first caller, and is cancelled once every
+     * caller has cancelled; either way the entry is removed when it terminates.
+     *
+     * @param key normalized request, see {@link #requestKey}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> upstream) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean(false);
+            Mono<?> shared = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return upstream.get()
+                        .doFinally(signal -> inFlight.remove(k))
+                        .share();
+            });
+
+            if (leader.get()) {
+                dispatchedCounter.increment();
+            } else {
+                coalescedCounter.increment();
+            }
+            return (Mono<T>) shared;
+        });
+    }
+
+    /**
+     * Normalized form of a request: the path followed by query params sorted by name then value, minus apiKey
+     */
+    public static String requestKey(String path, MultiValueMap<String, String> queryParams) {
+        List<String> params = new ArrayList<>();
+        queryParams.forEach((name, values) -> {
+            if (!API_KEY_PARAM.equals(name)) {
+                values.forEach(value -> params.add(name + "=" + value));
+            }
+        });
+
+        return params.isEmpty() ? path : path + "?" + params.stream()
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+}
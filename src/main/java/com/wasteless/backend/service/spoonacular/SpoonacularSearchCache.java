@@ -0,0 +1,132 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.CacheConfig;
+import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Result cache for complexSearch, keyed by the canonical form of a {@link RecipeSearchRequest}.
+ * Text fields are trimmed, lowercased and whitespace-collapsed, so "Jollof  Rice" and "jollof rice" share an entry.
+ * The result count is not part of the key: upstream calls are rounded up to a number bucket and a cached
+ * entry serves any request asking for the same number of results or fewer.
+ * Hits and misses are counted per query shape (which filters were set) as spoonacular.search.cache{shape,result}.
+ */
+@Component
+public class SpoonacularSearchCache {
+
+    // complexSearch returns at most 100 results per call
+    private static final int[] NUMBER_BUCKETS = {10, 25, 50, 100};
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public SpoonacularSearchCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Canonical search: the normalized filters shared by every request that can be answered by the same results
+     */
+    public record SearchKey(String query, String cuisine, String diet, Integer maxReadyTime) {
+
+        public static SearchKey of(RecipeSearchRequest request) {
+            return new SearchKey(
+                    normalize(request.getQuery()),
+                    normalize(request.getCuisine()),
+                    normalize(request.getDiet()),
+                    request.getMaxReadyTime());
+        }
+
+        /**
+         * Which filters are set, e.g. "query+diet"; used as the metrics tag instead of the raw values
+         */
+        public String shape() {
+            List<String> parts = new ArrayList<>();
+            if (query != null) parts.add("query");
+            if (cuisine != null) parts.add("cuisine");
+            if (diet != null) parts.add("diet");
+            if (maxReadyTime != null) parts.add("maxReadyTime");
+            return parts.isEmpty() ? "none" : String.join("+", parts);
+        }
+    }
+
+    private record CachedSearch(int number, List<SpoonacularRecipe> results) {
+
+        boolean covers(int requested) {
+            // Fewer results than asked for means Spoonacular had no more to give
+            return number >= requested || results.size() < number;
+        }
+    }
+
+    /**
+     * Serve the first {@code requested} results from cache, or fetch a bucket's worth and cache it
+     *
+     * @param requested at least 1; smaller values are treated as 1
+     * @param fetch     upstream call, given the number of results to ask for
+     */
+    public Mono<List<SpoonacularRecipe>> getOrFetch(SearchKey key, int requested,
+                                                    Function<Integer, Mono<List<SpoonacularRecipe>>> fetch) {
+        int number = Math.max(1, requested);
+        CachedSearch cached = searchCache().get(key, CachedSearch.class);
+        if (cached != null && cached.covers(number)) {
+            count(key, "hit");
+            return Mono.just(first(cached.results(), number));
+        }
+
+        count(key, "miss");
+        int bucket = bucket(number);
+        return fetch.apply(bucket)
+                .doOnNext(results -> searchCache().put(key, new CachedSearch(bucket, List.copyOf(results))))
+                .map(results -> first(results, number));
+    }
+
+    static int bucket(int number) {
+        for (int bucket : NUMBER_BUCKETS) {
+            if (number <= bucket) {
+                return bucket;
+            }
+        }
+        return NUMBER_BUCKETS[NUMBER_BUCKETS.length - 1];
+    }
+
+    private static List<SpoonacularRecipe> first(List<SpoonacularRecipe> results, int number) {
+        return results.size() <= number ? results : results.subList(0, number);
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private void count(SearchKey key, String result) {
+        Counter.builder("spoonacular.search.cache")
+                .description("complexSearch result cache lookups by query shape")
+                .tag("shape", key.shape())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Cache searchCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.RECIPE_SEARCH_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CacheConfig.RECIPE_SEARCH_CACHE);
+        }
+        return cache;
+    }
+}
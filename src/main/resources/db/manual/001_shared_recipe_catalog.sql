@@ -0,0 +1,62 @@
+-- Split per-user recipe rows into a shared catalog (recipes) and per-user links (saved_recipes).
+-- PostgreSQL. Run once against an existing database, before deploying the version that introduces SavedRecipe
+-- (ddl-auto=update creates missing tables/columns but never moves data or drops columns).
+--
+-- recipes.spoonacular_id was already unique, so every existing row becomes its own catalog entry
+-- and gets exactly one saved_recipes row for the user who owned it.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS saved_recipes (
+    id                      BIGSERIAL PRIMARY KEY,
+    user_id                 BIGINT NOT NULL REFERENCES users (id),
+    recipe_id               BIGINT NOT NULL REFERENCES recipes (id),
+    used_ingredient_count   INTEGER,
+    missed_ingredient_count INTEGER,
+    saved_at                TIMESTAMP(6),
+    cooked_at               TIMESTAMP(6),
+    is_cooked               BOOLEAN,
+    CONSTRAINT uk_saved_recipes_user_recipe UNIQUE (user_id, recipe_id)
+);
+
+CREATE TABLE IF NOT EXISTS saved_recipe_used_ingredients (
+    saved_recipe_id BIGINT NOT NULL REFERENCES saved_recipes (id),
+    used_ingredient VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS saved_recipe_missed_ingredients (
+    saved_recipe_id   BIGINT NOT NULL REFERENCES saved_recipes (id),
+    missed_ingredient VARCHAR(255)
+);
+
+INSERT INTO saved_recipes (user_id, recipe_id, used_ingredient_count, missed_ingredient_count,
+                           saved_at, cooked_at, is_cooked)
+SELECT r.user_id, r.id, r.used_ingredient_count, r.missed_ingredient_count, r.saved_at, r.cooked_at, r.is_cooked
+FROM recipes r
+WHERE r.user_id IS NOT NULL
+ON CONFLICT (user_id, recipe_id) DO NOTHING;
+
+INSERT INTO saved_recipe_used_ingredients (saved_recipe_id, used_ingredient)
+SELECT s.id, u.used_ingredient
+FROM recipe_used_ingredients u
+JOIN saved_recipes s ON s.recipe_id = u.recipe_id;
+
+INSERT INTO saved_recipe_missed_ingredients (saved_recipe_id, missed_ingredient)
+SELECT s.id, m.missed_ingredient
+FROM recipe_missed_ingredients m
+JOIN saved_recipes s ON s.recipe_id = m.recipe_id;
+
+DROP TABLE recipe_used_ingredients;
+DROP TABLE recipe_missed_ingredients;
+
+ALTER TABLE recipes
+    DROP COLUMN user_id,
+    DROP COLUMN used_ingredient_count,
+    DROP COLUMN missed_ingredient_count,
+    DROP COLUMN saved_at,
+    DROP COLUMN cooked_at,
+    DROP COLUMN is_cooked;
+
+ALTER TABLE recipes ALTER COLUMN spoonacular_id SET NOT NULL;
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- Move inventory_items.id from an identity column to the pooled sequence InventoryItem now uses
+-- (allocationSize 50, so Hibernate can batch inserts). PostgreSQL. Run once against an existing database,
+-- before deploying the version that introduces the sequence: ddl-auto=update would create it starting at 1,
+-- below the ids already in use.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS inventory_items_seq INCREMENT BY 50;
+
+-- Hibernate hands out the 50 ids below each value it draws, so start one block past the current maximum
+SELECT setval('inventory_items_seq', COALESCE(MAX(id), 0) + 50) FROM inventory_items;
+
+ALTER TABLE inventory_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+COMMIT;
@@ -0,0 +1,7 @@
+-- Index for the saved/cooked recipe lists, which page newest first on (saved_at, id) within one user.
+-- PostgreSQL. Run once against an existing database, before deploying the version that declares the index:
+-- ddl-auto=update would otherwise build it with a plain CREATE INDEX that blocks writes to saved_recipes.
+-- CONCURRENTLY keeps the table writable while it builds, and cannot run inside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_saved_recipes_user_saved_at
+    ON saved_recipes (user_id, saved_at, id);
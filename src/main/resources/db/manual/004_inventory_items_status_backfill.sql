@@ -0,0 +1,16 @@
+-- Give every inventory item a status. Items saved through the builder used to get a NULL status, which the
+-- queries treated as ACTIVE; they now filter on status = 'ACTIVE' alone. PostgreSQL. Run once against an
+-- existing database, before deploying the version that drops the NULL handling.
+
+BEGIN;
+
+UPDATE inventory_items SET status = 'ACTIVE' WHERE status IS NULL;
+
+-- Rows inserted by instances still running the previous version during the rollout
+ALTER TABLE inventory_items ALTER COLUMN status SET DEFAULT 'ACTIVE';
+
+COMMIT;
+
+-- The listing index, built without blocking writes (CONCURRENTLY cannot run inside a transaction)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_items_user_status_expiry
+    ON inventory_items (user_id, status, expiry_date, id);
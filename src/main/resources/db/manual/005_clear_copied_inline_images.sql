@@ -0,0 +1,24 @@
+-- Drop the inline base64 copies of images that ImageMigration has copied to the image store.
+-- PostgreSQL. Run only after checking that image.store.dir is on a persistent volume and holds the blobs
+-- (e.g. GET /api/v1/images/{hash} for a sample of rows after a redeploy): until then the inline value is the
+-- only durable copy, and ImageMigration uses it to restore blobs that have gone missing.
+
+BEGIN;
+
+UPDATE inventory_items
+SET image_url = NULL
+WHERE image_hash IS NOT NULL
+  AND image_url IS NOT NULL
+  AND image_url NOT LIKE 'http://%'
+  AND image_url NOT LIKE 'https://%'
+  AND image_url NOT LIKE '/%';
+
+UPDATE users
+SET profile_picture = NULL
+WHERE profile_picture_hash IS NOT NULL
+  AND profile_picture IS NOT NULL
+  AND profile_picture NOT LIKE 'http://%'
+  AND profile_picture NOT LIKE 'https://%'
+  AND profile_picture NOT LIKE '/%';
+
+COMMIT;
@@ -0,0 +1,222 @@
+package com.wasteless.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.inventory.InventoryRequest;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.image.ImageMigration;
+import com.wasteless.backend.service.image.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class ImageControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ImageMigration imageMigration;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(User.builder()
+                .email("images@test.com")
+                .password("password")
+                .fullName("Image Test User")
+                .build());
+    }
+
+    @Test
+    void testUploadAndServeImage() throws Exception {
+        byte[] png = png(800, 600, 0x3366CC);
+
+        String hash = upload(png);
+        // Same bytes, same blob
+        assertEquals(hash, upload(png));
+
+        byte[] served = mockMvc.perform(get("/api/v1/images/{hash}", hash))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(png, served);
+
+        mockMvc.perform(get("/api/v1/images/{hash}", hash)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/images/{hash}", hash)
+                        .header(HttpHeaders.RANGE, "bytes=0-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-7/" + png.length))
+                .andExpect(content().bytes(Arrays.copyOf(png, 8)));
+
+        mockMvc.perform(get("/api/v1/images/{hash}/thumbnail", hash))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/images/{hash}", "0".repeat(64)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUploadRejectsNonImage() throws Exception {
+        mockMvc.perform(multipart("/api/v1/images")
+                        .file(new MockMultipartFile("file", "notes.txt", "text/plain", "hello".getBytes())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Unsupported image type")));
+    }
+
+    @Test
+    void testInventoryItemKeepsOnlyImageHash() throws Exception {
+        byte[] png = png(40, 40, 0xCC3333);
+        String hash = upload(png);
+
+        InventoryRequest byHash = InventoryRequest.builder().name("Peppers").quantity(3).imageHash(hash).build();
+        mockMvc.perform(post("/api/v1/inventory/{userId}/add", testUser.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(byHash)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value("/api/v1/images/" + hash))
+                .andExpect(jsonPath("$.thumbnailUrl").value("/api/v1/images/" + hash + "/thumbnail"));
+
+        // Older clients still send the picture inline; it goes to the store, not the row
+        InventoryRequest inline = InventoryRequest.builder().name("Radishes").quantity(1)
+                .imageUrl("data:image/png;base64," + Base64.getEncoder().encodeToString(png)).build();
+        String response = mockMvc.perform(post("/api/v1/inventory/{userId}/add", testUser.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inline)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value("/api/v1/images/" + hash))
+                .andReturn().getResponse().getContentAsString();
+
+        InventoryItem saved = inventoryRepository.findById(objectMapper.readTree(response).get("id").asLong()).orElseThrow();
+        assertEquals(hash, saved.getImageHash());
+        assertNull(saved.getImageUrl());
+    }
+
+    @Test
+    void testMigrationMovesInlineImagesToStore() throws Exception {
+        byte[] png = png(30, 20, 0x33CC66);
+        InventoryItem item = inventoryRepository.save(InventoryItem.builder()
+                .name("Limes")
+                .quantity(4)
+                .imageUrl(Base64.getEncoder().encodeToString(png))
+                .user(testUser)
+                .build());
+        InventoryItem external = inventoryRepository.save(InventoryItem.builder()
+                .name("Lemons")
+                .quantity(2)
+                .imageUrl("https://example.com/lemons.png")
+                .user(testUser)
+                .build());
+
+        imageMigration.migrate();
+
+        // The inline copy stays until the store is known to be durable
+        assertEquals(Base64.getEncoder().encodeToString(png), item.getImageUrl());
+        // Counts as a change for delta sync and the inventory ETag
+        Long syncVersion = item.getSyncVersion();
+        assertNotNull(syncVersion);
+        mockMvc.perform(get("/api/v1/images/{hash}", item.getImageHash()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png));
+        assertEquals("https://example.com/lemons.png", external.getImageUrl());
+        assertNull(external.getImageHash());
+        assertNull(external.getSyncVersion());
+
+        // A blob lost with its disk is restored from the inline copy on the next run
+        Files.delete(imageStore.find(item.getImageHash()).orElseThrow());
+        imageMigration.migrate();
+        mockMvc.perform(get("/api/v1/images/{hash}", item.getImageHash()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png));
+        assertEquals(syncVersion, item.getSyncVersion());
+    }
+
+    @Test
+    void testSweepDeletesUnreferencedImagesAfterGracePeriod() throws Exception {
+        String kept = upload(png(50, 50, 0x6633CC));
+        String orphan = upload(png(60, 60, 0xCC6633));
+
+        // Within the grace period nothing goes
+        imageStore.sweep(Set.of(kept), Duration.ofHours(1));
+        assertTrue(imageStore.exists(orphan));
+
+        assertTrue(imageStore.sweep(Set.of(kept), Duration.ZERO) >= 1);
+        assertTrue(imageStore.exists(kept));
+        assertFalse(imageStore.exists(orphan));
+        mockMvc.perform(get("/api/v1/images/{hash}", orphan))
+                .andExpect(status().isNotFound());
+    }
+
+    private String upload(byte[] image) throws Exception {
+        String response = mockMvc.perform(multipart("/api/v1/images")
+                        .file(new MockMultipartFile("file", "photo.png", "image/png", image)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contentType").value("image/png"))
+                .andExpect(jsonPath("$.size").value(image.length))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("hash").asText();
+    }
+
+    private static byte[] png(int width, int height, int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x * height / width, rgb);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,157 @@
+package com.wasteless.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.inventory.InventoryRequest;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Adding N inventory items one POST /add at a time versus a single POST /bulk, for N = 10, 100 and 1000.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ * Prints the median wall time over -Dbenchmark.rounds runs (default 5) and the JDBC statements executed.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class InventoryControllerBenchmarkTest {
+
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+    private static final int[] SIZES = {10, 100, 1000};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepository.save(User.builder()
+                .fullName("inventory benchmark user")
+                .email("inventory-benchmark@test.com")
+                .password("password123")
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryRepository.deleteAllInBatch(inventoryRepository.findByUser(user));
+        userRepository.delete(user);
+    }
+
+    @Test
+    public void perItemVersusBulk() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm up both paths
+        addOneByOne(requests(50));
+        addInBulk(requests(50));
+
+        for (int size : SIZES) {
+            List<InventoryRequest> requests = requests(size);
+
+            long[] perItem = new long[ROUNDS];
+            long[] bulk = new long[ROUNDS];
+            long perItemStatements = 0;
+            long bulkStatements = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                statistics.clear();
+                perItem[round] = addOneByOne(requests);
+                perItemStatements = statistics.getPrepareStatementCount();
+
+                statistics.clear();
+                bulk[round] = addInBulk(requests);
+                bulkStatements = statistics.getPrepareStatementCount();
+            }
+
+            double perItemMs = median(perItem) / 1e6;
+            double bulkMs = median(bulk) / 1e6;
+            System.out.printf("%5d items   per-item %9.1f ms (%5d statements)   bulk %8.1f ms (%4d statements)   %5.1fx%n",
+                    size, perItemMs, perItemStatements, bulkMs, bulkStatements, perItemMs / bulkMs);
+        }
+    }
+
+    private long addOneByOne(List<InventoryRequest> requests) throws Exception {
+        long start = System.nanoTime();
+        for (InventoryRequest request : requests) {
+            assertEquals(200, send("/add", request));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long addInBulk(List<InventoryRequest> requests) throws Exception {
+        long start = System.nanoTime();
+        assertEquals(200, send("/bulk", requests));
+        return System.nanoTime() - start;
+    }
+
+    private int send(String path, Object body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/inventory/" + user.getId() + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static List<InventoryRequest> requests(int count) {
+        List<InventoryRequest> requests = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> requests.add(InventoryRequest.builder()
+                .name("Item " + i)
+                .quantity(1 + i % 5)
+                .unit("pieces")
+                .category("Benchmark")
+                .storageLocation(i % 2 == 0 ? "Fridge" : "Pantry")
+                .purchaseDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusDays(1 + i % 14))
+                .build()));
+        return requests;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
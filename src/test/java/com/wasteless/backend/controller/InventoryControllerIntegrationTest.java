@@ -3,20 +3,29 @@ package com.wasteless.backend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wasteless.backend.config.TestSecurityConfig;
 import com.wasteless.backend.dto.inventory.InventoryRequest;
+import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
 import com.wasteless.backend.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,6 +45,9 @@ class InventoryControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
     private static Long testUserId;
     private static Long savedItemId;
 
@@ -113,4 +125,193 @@ class InventoryControllerIntegrationTest {
         mockMvc.perform(delete("/api/v1/inventory/delete/{id}", savedItemId))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    @Order(6)
+    void testListItemsPaginated() throws Exception {
+        User user = userRepository.findById(testUserId).orElseThrow();
+        inventoryRepository.saveAll(List.of(
+                item(user, "Bread", LocalDate.now().plusDays(1), "Pantry", null),
+                item(user, "Cheese", LocalDate.now().plusDays(3), "Fridge", InventoryItem.ItemStatus.ACTIVE),
+                item(user, "Rice", null, "Pantry", InventoryItem.ItemStatus.ACTIVE),
+                item(user, "Yogurt", LocalDate.now().plusDays(2), "Fridge", InventoryItem.ItemStatus.EATEN)));
+
+        // ACTIVE by default (builder-made items start out ACTIVE), soonest expiry first, undated last
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Bread"))
+                .andExpect(jsonPath("$[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$[0].imageUrl").doesNotExist())
+                .andExpect(jsonPath("$[1].name").value("Cheese"))
+                .andExpect(header().exists(RecipeController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("limit", "2")
+                        .param("cursor", firstPage.getResponse().getHeader(RecipeController.NEXT_CURSOR_HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Rice"))
+                .andExpect(header().doesNotExist(RecipeController.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("storageLocation", "Pantry"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Bread"))
+                .andExpect(jsonPath("$[1].name").value("Rice"));
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("category", "Test")
+                        .param("storageLocation", "Fridge"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Cheese"));
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("status", "EATEN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Yogurt"));
+    }
+
+    @Test
+    @Order(7)
+    void testAddItemsInBulk() throws Exception {
+        User user = userRepository.findById(testUserId).orElseThrow();
+        int before = inventoryRepository.findByUser(user).size();
+
+        List<InventoryRequest> requests = List.of(
+                InventoryRequest.builder().name("Apples").quantity(6).expiryDate(LocalDate.now().plusDays(10)).build(),
+                InventoryRequest.builder().name("Butter").quantity(1).storageLocation("Fridge").build(),
+                InventoryRequest.builder().name("Pasta").quantity(2).storageLocation("Pantry").build());
+
+        mockMvc.perform(post("/api/v1/inventory/{userId}/bulk", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].name").value("Apples"))
+                .andExpect(jsonPath("$[2].id").isNumber());
+
+        // Every problem is reported, and nothing is saved
+        List<InventoryRequest> invalid = List.of(
+                InventoryRequest.builder().name("Eggs").quantity(12).build(),
+                InventoryRequest.builder().quantity(1).build(),
+                InventoryRequest.builder().name("Fish").quantity(1)
+                        .purchaseDate(LocalDate.now()).expiryDate(LocalDate.now().minusDays(1)).build());
+
+        mockMvc.perform(post("/api/v1/inventory/{userId}/bulk", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalid)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Item 2: name is required")))
+                .andExpect(jsonPath("$.message").value(containsString("Item 3: expiry date")));
+
+        assertEquals(before + 3, inventoryRepository.findByUser(user).size());
+    }
+
+    @Test
+    @Order(8)
+    void testConditionalGetWithInventoryVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/inventory/{userId}/all", testUserId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/all", testUserId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/inventory/{userId}/items", testUserId)
+                        .param("storageLocation", "Fridge")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        InventoryRequest request = InventoryRequest.builder().name("Butter").quantity(1).build();
+        mockMvc.perform(post("/api/v1/inventory/{userId}/add", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/v1/inventory/{userId}/all", testUserId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Butter')]").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    @Order(9)
+    void testDeltaSync() throws Exception {
+        String start = mockMvc.perform(get("/api/v1/inventory/{userId}/changes", testUserId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts[?(@.name == 'Butter')]").exists())
+                .andExpect(jsonPath("$.deletions").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(start).get("cursor").asText();
+
+        List<InventoryRequest> requests = List.of(
+                InventoryRequest.builder().name("Cream").quantity(1).build(),
+                InventoryRequest.builder().name("Yogurt").quantity(4).build());
+        String added = mockMvc.perform(post("/api/v1/inventory/{userId}/bulk", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long creamId = objectMapper.readTree(added).get(0).get("id").asLong();
+        long yogurtId = objectMapper.readTree(added).get(1).get("id").asLong();
+
+        mockMvc.perform(put("/api/v1/inventory/update/{id}", creamId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                InventoryRequest.builder().name("Sour cream").quantity(1).build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/inventory/delete/{id}", yogurtId))
+                .andExpect(status().isNoContent());
+
+        String changes = mockMvc.perform(get("/api/v1/inventory/{userId}/changes", testUserId)
+                        .param("since", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts.length()").value(1))
+                .andExpect(jsonPath("$.upserts[0].id").value(creamId))
+                .andExpect(jsonPath("$.upserts[0].name").value("Sour cream"))
+                .andExpect(jsonPath("$.deletions.length()").value(1))
+                .andExpect(jsonPath("$.deletions[0]").value(yogurtId))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(changes).get("cursor").asText();
+        assertNotEquals(cursor, next);
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/changes", testUserId)
+                        .param("since", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts").isEmpty())
+                .andExpect(jsonPath("$.deletions").isEmpty())
+                .andExpect(jsonPath("$.cursor").value(next));
+
+        mockMvc.perform(get("/api/v1/inventory/{userId}/changes", testUserId)
+                        .param("since", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static InventoryItem item(User user, String name, LocalDate expiryDate, String storageLocation,
+                                      InventoryItem.ItemStatus status) {
+        InventoryItem item = InventoryItem.builder()
+                .name(name)
+                .quantity(1)
+                .category("Test")
+                .expiryDate(expiryDate)
+                .storageLocation(storageLocation)
+                .imageUrl("data:image/png;base64,AAAA")
+                .user(user)
+                .build();
+        if (status != null) {
+            item.setStatus(status);
+        }
+        return item;
+    }
 }
@@ -0,0 +1,202 @@
+package com.wasteless.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.recipe.MarkAsCookedRequest;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.model.SavedRecipe;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.RecipeRepository;
+import com.wasteless.backend.repository.SavedRecipeRepository;
+import com.wasteless.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * markAsCooked runs each attempt in a transaction of its own, so these tests commit their data
+ * instead of running inside a rolled-back test transaction
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MarkAsCookedIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private SavedRecipeRepository savedRecipeRepository;
+
+    @MockitoSpyBean
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private SavedRecipe savedRecipe;
+
+    @BeforeEach
+    void setUp() {
+        reset(inventoryRepository);
+        user = userRepository.save(User.builder()
+                .email("cook-" + UUID.randomUUID() + "@test.com")
+                .password("password")
+                .fullName("Cook")
+                .build());
+        Recipe recipe = recipeRepository.save(Recipe.builder()
+                .spoonacularId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                .title("Omelette")
+                .build());
+        savedRecipe = savedRecipeRepository.save(SavedRecipe.builder()
+                .user(user)
+                .recipe(recipe)
+                .savedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void testMarkAsCooked() throws Exception {
+        InventoryItem eggs = item("Eggs", 2);
+
+        markAsCooked(List.of(eggs.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isCooked").value(true))
+                .andExpect(jsonPath("$.title").value("Omelette"))
+                .andExpect(jsonPath("$.inventoryUpdates[0].itemId").value(eggs.getId()))
+                .andExpect(jsonPath("$.inventoryUpdates[0].outcome").value("DECREMENTED"))
+                .andExpect(jsonPath("$.inventoryUpdates[0].remainingQuantity").value(1));
+    }
+
+    @Test
+    void testDuplicateAndUnknownIds() throws Exception {
+        InventoryItem eggs = item("Eggs", 2);
+        InventoryItem milk = item("Milk", 3);
+        long unknownId = Long.MAX_VALUE;
+
+        // An id listed twice uses two units; an id that no longer exists is reported, not an error
+        markAsCooked(List.of(eggs.getId(), milk.getId(), eggs.getId(), unknownId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inventoryUpdates.length()").value(3))
+                .andExpect(jsonPath("$.inventoryUpdates[0].itemId").value(eggs.getId()))
+                .andExpect(jsonPath("$.inventoryUpdates[0].outcome").value("REMOVED"))
+                .andExpect(jsonPath("$.inventoryUpdates[1].itemId").value(milk.getId()))
+                .andExpect(jsonPath("$.inventoryUpdates[1].outcome").value("DECREMENTED"))
+                .andExpect(jsonPath("$.inventoryUpdates[1].remainingQuantity").value(2))
+                .andExpect(jsonPath("$.inventoryUpdates[2].itemId").value(unknownId))
+                .andExpect(jsonPath("$.inventoryUpdates[2].outcome").value("NOT_FOUND"));
+
+        assertFalse(inventoryRepository.existsById(eggs.getId()));
+        assertEquals(2, inventoryRepository.findById(milk.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testRetriesAfterConcurrentChange() throws Exception {
+        InventoryItem eggs = item("Eggs", 2);
+        AtomicInteger flushes = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (flushes.incrementAndGet() == 1) {
+                // Another device adds a dozen eggs between our read and our write
+                // (on another thread, so it commits on a connection of its own rather than joining ours)
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE inventory_items SET quantity = quantity + 12, version = version + 1 WHERE id = ?",
+                        eggs.getId())).join();
+            }
+            // What the repository's flush does, exception translation included;
+            // the spy cannot call through to the repository proxy
+            try {
+                entityManager.flush();
+            } catch (RuntimeException e) {
+                DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                throw translated != null ? translated : e;
+            }
+            return null;
+        }).when(inventoryRepository).flush();
+
+        markAsCooked(List.of(eggs.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inventoryUpdates[0].outcome").value("DECREMENTED"))
+                .andExpect(jsonPath("$.inventoryUpdates[0].remainingQuantity").value(13));
+
+        // The first attempt hit the version check and was rolled back; the retry worked from fresh data
+        assertEquals(2, flushes.get());
+        assertEquals(13, inventoryRepository.findById(eggs.getId()).orElseThrow().getQuantity());
+        assertTrue(savedRecipeRepository.findById(savedRecipe.getId()).orElseThrow().getIsCooked());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() throws Exception {
+        InventoryItem eggs = item("Eggs", 2);
+        doThrow(new ObjectOptimisticLockingFailureException(InventoryItem.class, eggs.getId()))
+                .when(inventoryRepository).flush();
+
+        markAsCooked(List.of(eggs.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Inventory was modified concurrently, please try again"));
+
+        // Nothing from any attempt was committed
+        assertEquals(2, inventoryRepository.findById(eggs.getId()).orElseThrow().getQuantity());
+        assertFalse(savedRecipeRepository.findById(savedRecipe.getId()).orElseThrow().getIsCooked());
+    }
+
+    private InventoryItem item(String name, int quantity) {
+        return inventoryRepository.save(InventoryItem.builder()
+                .name(name)
+                .quantity(quantity)
+                .user(user)
+                .build());
+    }
+
+    private ResultActions markAsCooked(List<Long> itemIds) throws Exception {
+        MarkAsCookedRequest request = MarkAsCookedRequest.builder()
+                .recipeId(savedRecipe.getId())
+                .ingredientsUsedIds(itemIds)
+                .deductFromInventory(true)
+                .build();
+        return mockMvc.perform(post("/api/v1/recipes/mark-as-cooked")
+                .param("userId", user.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+}
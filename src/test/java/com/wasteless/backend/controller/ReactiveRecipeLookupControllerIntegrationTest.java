@@ -0,0 +1,54 @@
+package com.wasteless.backend.controller;
+
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
+import com.wasteless.backend.service.spoonacular.RecipeDetailsDiskCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "recipe.reactive.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReactiveRecipeLookupControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private RecipeDetailsDiskCache recipeDetailsDiskCache;
+
+    @Test
+    void testRecipeDetailsCompleteAsynchronously() throws Exception {
+        assertEquals(0, applicationContext.getBeanNamesForType(RecipeLookupController.class).length);
+
+        recipeDetailsDiskCache.put(SpoonacularRecipe.builder()
+                .id(86420L)
+                .title("Reactive Ratatouille")
+                .extendedIngredients(List.of(new SpoonacularRecipe.ExtendedIngredient(
+                        1L, "eggplant", "1 eggplant, cubed", 1.0, "")))
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/recipes/86420").param("userId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Reactive Ratatouille"));
+    }
+}
@@ -0,0 +1,296 @@
+package com.wasteless.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
+import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.spoonacular.SpoonacularCircuitBreaker;
+import com.wasteless.backend.support.SpoonacularStubServer;
+import com.wasteless.backend.support.SpoonacularStubServer.Latency;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the recipe endpoints against {@link SpoonacularStubServer} instead of the real API.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ * Each scenario prints throughput and p50/p99 latency, e.g. to compare runs before and after a caching
+ * or concurrency change. Tune with -Dbenchmark.concurrency, -Dbenchmark.requests and
+ * -Dbenchmark.reactive=true (non-blocking controller path).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class RecipeControllerBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+    private static final int WARMUP_REQUESTS = Math.max(REQUESTS / 10, CONCURRENCY);
+    private static final int USERS = 50;
+
+    private static final List<Long> RECIPE_IDS = List.of(
+            715538L, 716429L, 644387L, 782601L, 715497L, 716426L, 715594L, 716406L,
+            642583L, 665003L, 632660L, 661447L, 654959L, 638420L, 649985L, 646512L);
+
+    private static final SpoonacularStubServer STUB = new SpoonacularStubServer().start();
+
+    @DynamicPropertySource
+    static void spoonacularProperties(DynamicPropertyRegistry registry) {
+        registry.add("spoonacular.api.base-url", STUB::baseUrl);
+        registry.add("spoonacular.api.timeout", () -> "2s");
+        // The stub has no quota; the limiter would only measure its own refill rate
+        registry.add("spoonacular.rate-limit.enabled", () -> "false");
+        registry.add("recipe.reactive.enabled", () -> System.getProperty("benchmark.reactive", "false"));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newFixedThreadPool(CONCURRENCY))
+            .build();
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<InventoryItem> items = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        STUB.reset();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        circuitBreakerRegistry.circuitBreaker(SpoonacularCircuitBreaker.NAME).reset();
+
+        String password = passwordEncoder.encode("password123");
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(User.builder()
+                    .fullName("benchmark user " + i)
+                    .email("benchmark" + i + "@test.com")
+                    .password(password)
+                    .build());
+            items.addAll(inventoryRepository.saveAll(Arrays.asList(
+                    item(user, "Chicken", 2),
+                    item(user, "Tomatoes", 4),
+                    item(user, "Garlic", 6))));
+            userIds.add(user.getId());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryRepository.deleteAll(items);
+        userRepository.deleteAllById(userIds);
+        items.clear();
+        userIds.clear();
+    }
+
+    @AfterAll
+    public static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    public void searchSameQuery() throws Exception {
+        STUB.latency(Latency.logNormal(Duration.ofMillis(80), Duration.ofMillis(400)));
+
+        Result result = run("search, same query", i -> post("/api/v1/recipes/search",
+                RecipeSearchRequest.builder().query("pasta").numberOfRecipes(10).build()));
+
+        assertTrue(result.succeeded() > 0);
+    }
+
+    @Test
+    public void searchDistinctQueries() throws Exception {
+        STUB.latency(Latency.logNormal(Duration.ofMillis(80), Duration.ofMillis(400)));
+
+        Result result = run("search, distinct queries", i -> post("/api/v1/recipes/search",
+                RecipeSearchRequest.builder().query("pasta " + i).numberOfRecipes(10).build()));
+
+        assertTrue(result.succeeded() > 0);
+    }
+
+    @Test
+    public void recipeDetails() throws Exception {
+        STUB.latency(Latency.logNormal(Duration.ofMillis(60), Duration.ofMillis(300)));
+
+        Result result = run("recipe details", i -> get("/api/v1/recipes/"
+                + RECIPE_IDS.get(ThreadLocalRandom.current().nextInt(RECIPE_IDS.size()))));
+
+        assertTrue(result.succeeded() > 0);
+    }
+
+    @Test
+    public void suggest() throws Exception {
+        STUB.latency(Latency.logNormal(Duration.ofMillis(100), Duration.ofMillis(500)));
+
+        Result result = run("suggest", i -> post("/api/v1/recipes/suggest",
+                RecipeSuggestRequest.builder().numberOfRecipes(5).build()));
+
+        assertTrue(result.succeeded() > 0);
+    }
+
+    @Test
+    public void searchWithDegradedUpstream() throws Exception {
+        // 5% errors and 1% of calls hanging past the 2s client timeout
+        STUB.latency(Latency.logNormal(Duration.ofMillis(150), Duration.ofMillis(1200)))
+                .errorRate(0.05)
+                .timeoutRate(0.01, Duration.ofSeconds(5));
+
+        Result result = run("search, degraded upstream", i -> post("/api/v1/recipes/search",
+                RecipeSearchRequest.builder().query("pasta " + (i % 200)).numberOfRecipes(10).build()));
+
+        assertTrue(result.succeeded() + result.failed() == REQUESTS);
+    }
+
+    private InventoryItem item(User user, String name, int quantity) {
+        return InventoryItem.builder()
+                .name(name)
+                .quantity(quantity)
+                .category("Benchmark")
+                .storageLocation("Fridge")
+                .purchaseDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 10)))
+                .user(user)
+                .build();
+    }
+
+    /**
+     * Request on behalf of a random benchmark user
+     */
+    private HttpRequest.Builder request(String path) {
+        long userId = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path + "?userId=" + userId))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Result(int succeeded, int failed) {
+    }
+
+    /**
+     * Send WARMUP_REQUESTS then REQUESTS requests from CONCURRENCY clients and print the latency profile
+     */
+    private Result run(String name, IntFunction<HttpRequest> requests) throws Exception {
+        drive(requests, WARMUP_REQUESTS, new long[WARMUP_REQUESTS], new TreeMap<>());
+        long upstreamBefore = STUB.totalRequests();
+
+        long[] latencies = new long[REQUESTS];
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        long started = System.nanoTime();
+        drive(requests, REQUESTS, latencies, statuses);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        int succeeded = statuses.getOrDefault(200, 0);
+        System.out.printf("%-28s %8.1f req/s   p50 %7.1f ms   p99 %7.1f ms   upstream calls %5d   statuses %s%n",
+                name,
+                REQUESTS / seconds,
+                latencies[percentileIndex(0.50)] / 1e6,
+                latencies[percentileIndex(0.99)] / 1e6,
+                STUB.totalRequests() - upstreamBefore,
+                statuses);
+        return new Result(succeeded, REQUESTS - succeeded);
+    }
+
+    private void drive(IntFunction<HttpRequest> requests, int count, long[] latencies,
+                       Map<Integer, Integer> statuses) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < CONCURRENCY; c++) {
+                running.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = httpClient.send(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                        synchronized (statuses) {
+                            statuses.merge(status, 1, Integer::sum);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static int percentileIndex(double percentile) {
+        return Math.min(REQUESTS - 1, (int) Math.ceil(percentile * REQUESTS) - 1);
+    }
+}
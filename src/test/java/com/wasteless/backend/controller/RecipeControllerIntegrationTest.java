@@ -2,23 +2,37 @@ package com.wasteless.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wasteless.backend.dto.recipe.MarkAsCookedRequest;
+import com.wasteless.backend.dto.recipe.RecipeResponse;
 import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
 import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.dto.recipe.spoonacular.SpoonacularRecipe;
 import com.wasteless.backend.model.InventoryItem;
 import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.model.SavedRecipe;
 import com.wasteless.backend.model.User;
 import com.wasteless.backend.repository.InventoryRepository;
 import com.wasteless.backend.repository.RecipeRepository;
+import com.wasteless.backend.repository.SavedRecipeRepository;
 import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.PrecomputedSuggestionStore;
+import com.wasteless.backend.service.RecipeIngredientIndex;
+import com.wasteless.backend.service.RecipeService;
+import com.wasteless.backend.service.spoonacular.RecipeDetailsDiskCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -26,6 +40,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -50,9 +66,30 @@ public class RecipeControllerIntegrationTest {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private SavedRecipeRepository savedRecipeRepository;
+
+    @Autowired
+    private RecipeIngredientIndex recipeIngredientIndex;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private PrecomputedSuggestionStore precomputedSuggestionStore;
+
+    @Autowired
+    private RecipeDetailsDiskCache recipeDetailsDiskCache;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User testUser;
     private InventoryItem testItem1;
     private InventoryItem testItem2;
@@ -109,6 +146,109 @@ public class RecipeControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testSuggestRecipesFromStoredRecipes() throws Exception {
+        // A stored recipe that only needs what the user already has, so Spoonacular is never called
+        Recipe stored = Recipe.builder()
+                .spoonacularId(24680L)
+                .title("Chicken Tomato Stew")
+                .ingredients(Arrays.asList("2 chicken thighs", "3 large tomatoes, chopped"))
+                .build();
+        stored = recipeRepository.save(stored);
+        recipeIngredientIndex.index(stored);
+
+        RecipeSuggestRequest request = RecipeSuggestRequest.builder()
+                .numberOfRecipes(1)
+                .maxMissingIngredients(0)
+                .build();
+
+        try {
+            mockMvc.perform(post("/api/v1/recipes/suggest")
+                            .param("userId", testUser.getId().toString())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].title").value("Chicken Tomato Stew"))
+                    .andExpect(jsonPath("$[0].usedIngredientCount").value(2))
+                    .andExpect(jsonPath("$[0].missedIngredientCount").value(0));
+        } finally {
+            recipeIngredientIndex.remove(stored.getId());
+        }
+    }
+
+    @Test
+    public void testSuggestRecipesServesPrecomputedResult() throws Exception {
+        // What the nightly job stores for the default request over the current inventory
+        RecipeSuggestRequest request = new RecipeSuggestRequest();
+        String fingerprint = recipeService.suggestionFingerprint(
+                Arrays.asList(testItem1.getName(), testItem2.getName()), request);
+        precomputedSuggestionStore.save(testUser, fingerprint, List.of(RecipeResponse.builder()
+                .spoonacularId(13579L)
+                .title("Use-It-Up Chicken Bake")
+                .usedIngredientCount(2)
+                .missedIngredientCount(1)
+                .build()));
+
+        mockMvc.perform(post("/api/v1/recipes/suggest")
+                        .param("userId", testUser.getId().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Use-It-Up Chicken Bake"))
+                .andExpect(jsonPath("$[0].spoonacularId").value(13579));
+    }
+
+    @Test
+    public void testSuggestRecipesStream() throws Exception {
+        Recipe stored = Recipe.builder()
+                .spoonacularId(13579L)
+                .title("Tomato Chicken Bake")
+                .ingredients(Arrays.asList("4 chicken breasts", "2 tomatoes, sliced"))
+                .build();
+        stored = recipeRepository.save(stored);
+        recipeIngredientIndex.index(stored);
+
+        RecipeSuggestRequest request = RecipeSuggestRequest.builder()
+                .numberOfRecipes(1)
+                .maxMissingIngredients(0)
+                .build();
+
+        try {
+            MvcResult result = mockMvc.perform(post("/api/v1/recipes/suggest/stream")
+                            .param("userId", testUser.getId().toString())
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(content().string(containsString("event:recipe")))
+                    .andExpect(content().string(containsString("Tomato Chicken Bake")))
+                    .andExpect(content().string(containsString("event:summary")))
+                    .andExpect(content().string(containsString("\"recipeCount\":1")));
+        } finally {
+            recipeIngredientIndex.remove(stored.getId());
+        }
+    }
+
+    @Test
+    public void testSuggestRecipesWithUnknownItemIds() throws Exception {
+        RecipeSuggestRequest request = RecipeSuggestRequest.builder()
+                .inventoryItemIds(Arrays.asList(testItem1.getId(), 999998L, 999999L))
+                .build();
+
+        mockMvc.perform(post("/api/v1/recipes/suggest")
+                        .param("userId", testUser.getId().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Inventory items not found: 999998, 999999"));
+    }
+
     @Test
     public void testSearchRecipes() throws Exception {
         RecipeSearchRequest request = RecipeSearchRequest.builder()
@@ -125,6 +265,26 @@ public class RecipeControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testGetRecipeDetailsFromDiskCache() throws Exception {
+        // Only on disk, as after a restart: the in-memory cache misses and the disk cache answers
+        recipeDetailsDiskCache.put(SpoonacularRecipe.builder()
+                .id(97531L)
+                .title("Disk Cached Shakshuka")
+                .readyInMinutes(25)
+                .servings(2)
+                .extendedIngredients(List.of(new SpoonacularRecipe.ExtendedIngredient(
+                        1L, "tomatoes", "4 tomatoes, diced", 4.0, "")))
+                .build());
+
+        mockMvc.perform(get("/api/v1/recipes/97531")
+                        .param("userId", testUser.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spoonacularId").value(97531))
+                .andExpect(jsonPath("$.title").value("Disk Cached Shakshuka"))
+                .andExpect(jsonPath("$.ingredients[0]").value("4 tomatoes, diced"));
+    }
+
     @Test
     public void testSaveRecipe() throws Exception {
         Long spoonacularId = 716429L; // Sample Spoonacular recipe ID
@@ -139,7 +299,7 @@ public class RecipeControllerIntegrationTest {
     @Test
     public void testGetSavedRecipes() throws Exception {
         // Create a saved recipe
-        Recipe savedRecipe = Recipe.builder()
+        Recipe recipe = Recipe.builder()
                 .spoonacularId(12345L)
                 .title("Test Recipe")
                 .image("http://example.com/image.jpg")
@@ -147,11 +307,13 @@ public class RecipeControllerIntegrationTest {
                 .servings(4)
                 .summary("A test recipe")
                 .instructions("Mix and cook")
+                .build();
+        savedRecipeRepository.save(SavedRecipe.builder()
                 .user(testUser)
+                .recipe(recipeRepository.save(recipe))
                 .savedAt(LocalDateTime.now())
                 .isCooked(false)
-                .build();
-        recipeRepository.save(savedRecipe);
+                .build());
 
         mockMvc.perform(get("/api/v1/recipes/saved")
                         .param("userId", testUser.getId().toString()))
@@ -159,6 +321,103 @@ public class RecipeControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].title").value("Test Recipe"));
     }
 
+    @Test
+    public void testGetSavedRecipesSummaryView() throws Exception {
+        saveRecipes(1);
+        Long savedRecipeId = savedRecipeRepository.findRows(testUser, null, Limit.of(1)).get(0).getId();
+
+        mockMvc.perform(get("/api/v1/recipes/saved")
+                        .param("userId", testUser.getId().toString())
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(savedRecipeId))
+                .andExpect(jsonPath("$[0].title").value("Saved Recipe 0"))
+                .andExpect(jsonPath("$[0].summary").doesNotExist())
+                .andExpect(jsonPath("$[0].instructions").doesNotExist())
+                .andExpect(jsonPath("$[0].ingredients").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/recipes/saved/" + savedRecipeId)
+                        .param("userId", testUser.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Saved Recipe 0"))
+                .andExpect(jsonPath("$.instructions").value("Chop and fry"))
+                .andExpect(jsonPath("$.ingredients.length()").value(2));
+    }
+
+    @Test
+    public void testGetSavedRecipesPaginates() throws Exception {
+        saveRecipes(3);
+
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/recipes/saved")
+                        .param("userId", testUser.getId().toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Saved Recipe 2"))
+                .andExpect(header().exists(RecipeController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/recipes/saved")
+                        .param("userId", testUser.getId().toString())
+                        .param("limit", "2")
+                        .param("cursor", firstPage.getResponse().getHeader(RecipeController.NEXT_CURSOR_HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Saved Recipe 0"))
+                .andExpect(jsonPath("$[0].ingredients.length()").value(2))
+                .andExpect(header().doesNotExist(RecipeController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testGetSavedRecipesQueryCountIsConstant() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        saveRecipes(2);
+        long fewRecipes = countSavedRecipesQueries(statistics);
+
+        saveRecipes(20);
+        long manyRecipes = countSavedRecipesQueries(statistics);
+
+        assertEquals(fewRecipes, manyRecipes);
+    }
+
+    private long countSavedRecipesQueries(Statistics statistics) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/recipes/saved")
+                        .param("userId", testUser.getId().toString())
+                        .param("limit", "100"))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void saveRecipes(int count) {
+        long existing = savedRecipeRepository.count();
+        for (int i = 0; i < count; i++) {
+            long n = existing + i;
+            Recipe recipe = recipeRepository.save(Recipe.builder()
+                    .spoonacularId(500000L + n)
+                    .title("Saved Recipe " + n)
+                    .summary("Summary " + n)
+                    .instructions("Chop and fry")
+                    .ingredients(Arrays.asList("1 onion", "2 eggs"))
+                    .build());
+            savedRecipeRepository.save(SavedRecipe.builder()
+                    .user(testUser)
+                    .recipe(recipe)
+                    .usedIngredients(Arrays.asList("2 eggs"))
+                    .missedIngredients(Arrays.asList("1 onion"))
+                    .usedIngredientCount(1)
+                    .missedIngredientCount(1)
+                    .savedAt(LocalDateTime.now().minusMinutes(1000 - n))
+                    .isCooked(false)
+                    .build());
+        }
+    }
+
     @Test
     public void testGetCookedRecipes() throws Exception {
         // Create a cooked recipe
@@ -170,12 +429,14 @@ public class RecipeControllerIntegrationTest {
                 .servings(2)
                 .summary("A cooked test recipe")
                 .instructions("Cook thoroughly")
+                .build();
+        savedRecipeRepository.save(SavedRecipe.builder()
                 .user(testUser)
+                .recipe(recipeRepository.save(cookedRecipe))
                 .savedAt(LocalDateTime.now().minusDays(1))
                 .cookedAt(LocalDateTime.now())
                 .isCooked(true)
-                .build();
-        recipeRepository.save(cookedRecipe);
+                .build());
 
         mockMvc.perform(get("/api/v1/recipes/cooked")
                         .param("userId", testUser.getId().toString()))
@@ -184,37 +445,6 @@ public class RecipeControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].isCooked").value(true));
     }
 
-    @Test
-    public void testMarkAsCooked() throws Exception {
-        // Create a saved recipe
-        Recipe recipe = Recipe.builder()
-                .spoonacularId(99999L)
-                .title("Recipe to Cook")
-                .image("http://example.com/tocook.jpg")
-                .readyInMinutes(20)
-                .servings(3)
-                .summary("Recipe for cooking test")
-                .instructions("Cook it")
-                .user(testUser)
-                .savedAt(LocalDateTime.now())
-                .isCooked(false)
-                .build();
-        recipe = recipeRepository.save(recipe);
-
-        MarkAsCookedRequest request = MarkAsCookedRequest.builder()
-                .recipeId(recipe.getId())
-                .ingredientsUsedIds(Arrays.asList(testItem1.getId()))
-                .deductFromInventory(true)
-                .build();
-
-        mockMvc.perform(post("/api/v1/recipes/mark-as-cooked")
-                        .param("userId", testUser.getId().toString())
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.isCooked").value(true));
-    }
-
     @Test
     public void testDeleteRecipe() throws Exception {
         // Create a recipe to delete
@@ -226,13 +456,15 @@ public class RecipeControllerIntegrationTest {
                 .servings(1)
                 .summary("Will be deleted")
                 .instructions("Delete me")
+                .build();
+        SavedRecipe savedRecipe = savedRecipeRepository.save(SavedRecipe.builder()
                 .user(testUser)
+                .recipe(recipeRepository.save(recipe))
                 .savedAt(LocalDateTime.now())
                 .isCooked(false)
-                .build();
-        recipe = recipeRepository.save(recipe);
+                .build());
 
-        mockMvc.perform(delete("/api/v1/recipes/" + recipe.getId())
+        mockMvc.perform(delete("/api/v1/recipes/" + savedRecipe.getId())
                         .param("userId", testUser.getId().toString()))
                 .andExpect(status().isNoContent());
     }
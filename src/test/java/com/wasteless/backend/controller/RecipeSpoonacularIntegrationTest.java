@@ -0,0 +1,263 @@
+package com.wasteless.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wasteless.backend.dto.recipe.RecipeSearchRequest;
+import com.wasteless.backend.dto.recipe.RecipeSuggestRequest;
+import com.wasteless.backend.event.InventoryChangedEvent;
+import com.wasteless.backend.model.InventoryItem;
+import com.wasteless.backend.model.User;
+import com.wasteless.backend.repository.InventoryRepository;
+import com.wasteless.backend.repository.UserRepository;
+import com.wasteless.backend.service.spoonacular.SpoonacularCircuitBreaker;
+import com.wasteless.backend.support.SpoonacularStubServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Recipe endpoints against {@link SpoonacularStubServer}, counting the upstream calls each request makes.
+ * Stored recipes and the disk cache are switched off so every lookup reaches the Spoonacular client.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecipeSpoonacularIntegrationTest {
+
+    private static final SpoonacularStubServer STUB = new SpoonacularStubServer().start();
+
+    @DynamicPropertySource
+    static void spoonacularProperties(DynamicPropertyRegistry registry) {
+        registry.add("spoonacular.api.base-url", STUB::baseUrl);
+        registry.add("spoonacular.api.timeout", () -> "2s");
+        registry.add("spoonacular.rate-limit.enabled", () -> "false");
+        registry.add("recipe.disk-cache.enabled", () -> "false");
+        registry.add("recipe.suggest.local-index.enabled", () -> "false");
+        registry.add("spoonacular.client.max-connections", () -> "7");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConnectionProvider spoonacularConnectionProvider;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        STUB.reset();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        circuitBreakerRegistry.circuitBreaker(SpoonacularCircuitBreaker.NAME).reset();
+
+        user = userRepository.save(User.builder()
+                .email("spoonacular-" + UUID.randomUUID() + "@test.com")
+                .password("password")
+                .fullName("Spoonacular Test User")
+                .build());
+        inventoryRepository.saveAll(List.of(item("Chicken", 2), item("Tomatoes", 4)));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void testDetailsFetchedOnceThenServedFromCache() throws Exception {
+        details(715538L)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spoonacularId").value(715538));
+        assertEquals(1, STUB.requestCount("information"));
+
+        details(715538L)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spoonacularId").value(715538));
+        assertEquals(1, STUB.requestCount("information"));
+
+        // Another recipe is a miss of its own
+        details(716429L).andExpect(status().isOk());
+        assertEquals(2, STUB.requestCount("information"));
+    }
+
+    @Test
+    void testDetailsFromSuggestionsAreReused() throws Exception {
+        suggest(5).andExpect(status().isOk());
+        assertEquals(1, STUB.requestCount("informationBulk"));
+
+        // Cached by the bulk call
+        details(715538L).andExpect(status().isOk());
+        assertEquals(0, STUB.requestCount("information"));
+    }
+
+    @Test
+    void testSuggestResolvesDetailsWithOneBulkCall() throws Exception {
+        suggest(5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+
+        assertEquals(1, STUB.requestCount("findByIngredients"));
+        assertEquals(1, STUB.requestCount("informationBulk"));
+        assertEquals(0, STUB.requestCount("information"));
+    }
+
+    @Test
+    void testSuggestFallsBackToSingleLookupsWhenBulkFails() throws Exception {
+        // The second candidate cannot be fetched on its own either: it is left out, the rest still come back
+        STUB.failEndpoint("informationBulk", 500).failRecipe(716429L);
+
+        suggest(5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[*].spoonacularId", not(hasItem(716429))));
+
+        assertEquals(1, STUB.requestCount("informationBulk"));
+        assertEquals(5, STUB.requestCount("information"));
+    }
+
+    @Test
+    void testSuggestionCacheDroppedOnInventoryChange() throws Exception {
+        suggest(5).andExpect(status().isOk());
+        suggest(5).andExpect(status().isOk());
+        assertEquals(1, STUB.requestCount("findByIngredients"));
+
+        eventPublisher.publishEvent(new InventoryChangedEvent(user.getId()));
+
+        suggest(5).andExpect(status().isOk());
+        assertEquals(2, STUB.requestCount("findByIngredients"));
+    }
+
+    @Test
+    void testSearchReusesBucketAcrossQuerySpellings() throws Exception {
+        search("Jollof  Rice", 5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+        // Same bucket of 10, same canonical query
+        search("jollof rice", 10)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10));
+        // Nonsensical counts are served as a single result
+        search("jollof rice", -3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        assertEquals(1, STUB.requestCount("complexSearch"));
+
+        // Past the cached bucket: one more upstream call for the next bucket
+        search("jollof rice", 20)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20));
+        assertEquals(2, STUB.requestCount("complexSearch"));
+    }
+
+    @Test
+    void testUpstreamCallsTimedByEndpointAndStatus() throws Exception {
+        long ok = requestTimerCount("information", "200");
+        long failed = requestTimerCount("information", "500");
+        long timedOut = requestTimerCount("information", "timeout");
+
+        details(715538L).andExpect(status().isOk());
+        STUB.failRecipe(716429L);
+        details(716429L).andExpect(status().is4xxClientError());
+        STUB.reset().timeoutRate(1.0, Duration.ofSeconds(5));
+        details(644387L).andExpect(status().is4xxClientError());
+
+        assertEquals(ok + 1, requestTimerCount("information", "200"));
+        assertEquals(failed + 1, requestTimerCount("information", "500"));
+        assertEquals(timedOut + 1, requestTimerCount("information", "timeout"));
+    }
+
+    @Test
+    void testConnectionPoolConfiguredFromProperties() {
+        assertEquals(7, spoonacularConnectionProvider.maxConnections());
+        assertEquals("spoonacular", spoonacularConnectionProvider.name());
+    }
+
+    private long requestTimerCount(String endpoint, String status) {
+        Timer timer = meterRegistry.find("spoonacular.client.requests")
+                .tag("endpoint", endpoint).tag("status", status).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private ResultActions search(String query, int numberOfRecipes) throws Exception {
+        RecipeSearchRequest request = RecipeSearchRequest.builder()
+                .query(query)
+                .numberOfRecipes(numberOfRecipes)
+                .build();
+        return mockMvc.perform(post("/api/v1/recipes/search")
+                .param("userId", user.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private ResultActions details(long spoonacularId) throws Exception {
+        return mockMvc.perform(get("/api/v1/recipes/{spoonacularId}", spoonacularId)
+                .param("userId", user.getId().toString()));
+    }
+
+    private ResultActions suggest(int numberOfRecipes) throws Exception {
+        RecipeSuggestRequest request = RecipeSuggestRequest.builder()
+                .numberOfRecipes(numberOfRecipes)
+                .maxMissingIngredients(100)
+                .build();
+        return mockMvc.perform(post("/api/v1/recipes/suggest")
+                .param("userId", user.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private InventoryItem item(String name, int quantity) {
+        return InventoryItem.builder()
+                .name(name)
+                .quantity(quantity)
+                .expiryDate(LocalDate.now().plusDays(3))
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.wasteless.backend.service;
+
+import com.wasteless.backend.model.Recipe;
+import com.wasteless.backend.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RecipeIngredientIndexTest {
+
+    private RecipeIngredientIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeIngredientIndex(mock(RecipeRepository.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @Test
+    void sharedTokenAloneDoesNotCountAsUsed() {
+        index.index(recipe(1L, "2 cups chicken broth", "1 onion, diced"));
+
+        // "chicken" is in both, but chicken breast is not broth
+        assertTrue(index.findMatches(List.of("Chicken breast"), 5, 10, true).isEmpty());
+
+        List<RecipeIngredientIndex.Match> matches = index.findMatches(List.of("Chicken broth"), 5, 10, true);
+        assertEquals(1, matches.size());
+        assertEquals(List.of("2 cups chicken broth"), matches.get(0).usedIngredients());
+        assertEquals(List.of("1 onion, diced"), matches.get(0).missedIngredients());
+    }
+
+    @Test
+    void itemNameMatchesMoreSpecificLine() {
+        index.index(recipe(1L, "2 chicken breasts", "1 cup green peas"));
+
+        List<RecipeIngredientIndex.Match> matches = index.findMatches(List.of("chicken", "peas"), 0, 10, true);
+        assertEquals(1, matches.size());
+        assertEquals(List.of("2 chicken breasts", "1 cup green peas"), matches.get(0).usedIngredients());
+        assertTrue(matches.get(0).missedIngredients().isEmpty());
+    }
+
+    @Test
+    void pantryStaplesAreNeitherUsedNorMissed() {
+        index.index(recipe(1L, "3 tomatoes", "salt and pepper", "2 tbsp extra virgin olive oil", "1 cup water"));
+
+        List<RecipeIngredientIndex.Match> matches = index.findMatches(List.of("Tomatoes"), 0, 10, true);
+        assertEquals(1, matches.size());
+        assertEquals(List.of("3 tomatoes"), matches.get(0).usedIngredients());
+        assertTrue(matches.get(0).missedIngredients().isEmpty());
+
+        // Having the staples is no reason to suggest a recipe
+        assertTrue(index.findMatches(List.of("Salt", "Olive oil"), 5, 10, true).isEmpty());
+    }
+
+    private static Recipe recipe(Long id, String... ingredients) {
+        return Recipe.builder()
+                .id(id)
+                .spoonacularId(1000 + id)
+                .title("Recipe " + id)
+                .ingredients(new ArrayList<>(List.of(ingredients)))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.wasteless.backend.service.spoonacular;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentStoreTest {
+
+    private static final long SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsAppendedAfterTheSegmentWasMapped() throws IOException {
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            store.append(1, 10, bytes("first"));
+            assertEquals("first", text(store.read(1)));
+
+            store.append(2, 20, bytes("second"));
+            store.append(1, 30, bytes("first again"));
+            assertEquals("second", text(store.read(2)));
+            assertEquals("first again", text(store.read(1)));
+            assertEquals(3L * SegmentStore.HEADER_SIZE + 5 + 6 + 11, store.sizeBytes());
+        }
+
+        // Preallocated to the segment size
+        assertEquals(SEGMENT_SIZE, Files.size(segments().get(0)));
+    }
+
+    @Test
+    void reopenStopsAtTheUnwrittenTailAndKeepsAppending() throws IOException {
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            store.append(1, 10, bytes("one"));
+            store.append(2, 20, bytes("two"));
+        }
+
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(2, store.entries());
+            assertEquals(2L * SegmentStore.HEADER_SIZE + 6, store.sizeBytes());
+            store.append(3, 30, bytes("three"));
+        }
+
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals("one", text(store.read(1)));
+            assertEquals("two", text(store.read(2)));
+            assertEquals("three", text(store.read(3)));
+            assertEquals(1, segments().size());
+        }
+    }
+
+    @Test
+    void reopenCutsATornRecord() throws IOException {
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            store.append(1, 10, bytes("kept"));
+            store.append(2, 20, bytes("torn"));
+        }
+
+        // Damage the payload of the second record
+        long torn = SegmentStore.HEADER_SIZE + 4 + SegmentStore.HEADER_SIZE;
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("XX")), torn);
+        }
+
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals("kept", text(store.read(1)));
+            assertNull(store.read(2));
+            store.append(3, 30, bytes("after"));
+            assertEquals("after", text(store.read(3)));
+        }
+    }
+
+    @Test
+    void recordLargerThanASegmentGetsItsOwn() throws IOException {
+        byte[] large = new byte[(int) SEGMENT_SIZE * 2];
+        try (SegmentStore store = SegmentStore.open(directory, SEGMENT_SIZE)) {
+            store.append(1, 10, bytes("small"));
+            store.append(2, 20, large);
+            store.append(3, 30, bytes("next"));
+
+            assertArrayEquals(large, store.read(2).payload());
+            assertEquals("next", text(store.read(3)));
+        }
+        assertEquals(3, segments().size());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(SegmentStore.Record record) {
+        return new String(record.payload(), StandardCharsets.UTF_8);
+    }
+}
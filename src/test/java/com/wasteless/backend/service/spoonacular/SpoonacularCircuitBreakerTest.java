@@ -0,0 +1,133 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.CacheConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonacularCircuitBreakerTest {
+
+    private static final String KEY = "/recipes/1/information";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private CircuitBreaker breaker;
+    private SpoonacularCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // Opens once half of the last 4 calls failed; one successful call in half-open closes it again
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(100))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .ignoreExceptions(SpoonacularQuotaExceededException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.SPOONACULAR_STALE_CACHE);
+        circuitBreaker = new SpoonacularCircuitBreaker(registry, cacheManager, meterRegistry);
+        breaker = registry.circuitBreaker(SpoonacularCircuitBreaker.NAME);
+    }
+
+    @Test
+    void testOpensAfterFailuresAndRejectsWithoutCallingUpstream() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> call(calls, Mono.error(serverError())));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Nothing cached for the key, so the caller sees the rejection
+        assertThrows(CallNotPermittedException.class, () -> call(calls, Mono.just("details")));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testHalfOpenClosesOnSuccessAndReopensOnFailure() {
+        breaker.transitionToOpenState();
+        breaker.transitionToHalfOpenState();
+        assertThrows(RuntimeException.class, () -> call(new AtomicInteger(), Mono.error(serverError())));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        breaker.transitionToHalfOpenState();
+        assertEquals("details", call(new AtomicInteger(), Mono.just("details")));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testServesStaleWhileOpenAndRevalidatesOnceHalfOpen() {
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("v1", call(calls, Mono.just("v1")));
+
+        breaker.transitionToOpenState();
+        assertEquals("v1", call(calls, Mono.just("v2")));
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.get("spoonacular.stale.served").counter().count());
+
+        // The probe waits while the breaker is open
+        circuitBreaker.revalidate();
+        assertEquals(1, calls.get());
+
+        // Half-open: the queued request is replayed, refreshes the stale entry and closes the breaker
+        breaker.transitionToHalfOpenState();
+        circuitBreaker.revalidate();
+        assertEquals(2, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, meterRegistry.get("spoonacular.stale.revalidated").counter().count());
+        assertEquals("v2", cacheManager.getCache(CacheConfig.SPOONACULAR_STALE_CACHE).get(KEY, String.class));
+
+        // Queue drained
+        circuitBreaker.revalidate();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testServesStaleOnServerErrorButNotOnClientError() {
+        AtomicInteger calls = new AtomicInteger();
+        call(calls, Mono.just("v1"));
+
+        assertEquals("v1", call(calls, Mono.error(serverError())));
+        assertThrows(WebClientResponseException.class, () -> call(calls, Mono.error(
+                WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null))));
+    }
+
+    @Test
+    void testQuotaErrorsDoNotOpenTheBreaker() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            assertThrows(SpoonacularQuotaExceededException.class, () -> call(calls,
+                    Mono.error(new SpoonacularQuotaExceededException("Spoonacular daily quota exceeded"))));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private String call(AtomicInteger calls, Mono<String> response) {
+        return circuitBreaker.execute(KEY, String.class, () -> {
+            calls.incrementAndGet();
+            return response;
+        }).block();
+    }
+
+    private static WebClientResponseException serverError() {
+        return WebClientResponseException.create(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error",
+                null, null, null);
+    }
+}
@@ -0,0 +1,149 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.CacheConfig;
+import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import com.wasteless.backend.support.SpoonacularStubServer;
+import com.wasteless.backend.support.TestSpoonacularConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonacularKeyPoolTest {
+
+    private static final String KEY_ONE = "key-one-1111";
+    private static final String KEY_TWO = "key-two-2222";
+    private static final String KEY_THREE = "key-three-3333";
+
+    private static final SpoonacularStubServer STUB = new SpoonacularStubServer().start();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        STUB.reset();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void testPicksTheKeyWithTheMostQuotaLeft() {
+        SpoonacularKeyPool pool = pool(KEY_ONE, KEY_TWO, KEY_THREE);
+        SpoonacularKeyPool.ApiKey one = pool.reserve(0);
+        assertEquals(KEY_ONE, one.value());
+
+        pool.recordQuota(one, 50.0, 100.0);
+        pool.recordQuota(key(KEY_THREE), 30.0, 120.0);
+        assertEquals(KEY_TWO, pool.reserve(40).value());
+        // KEY_TWO is down to 110 now, behind KEY_THREE
+        assertEquals(KEY_THREE, pool.reserve(1).value());
+        assertEquals(100 + 110 + 119, pool.getRemainingQuota(), 1e-9);
+        assertEquals(80, pool.getUsedQuota(), 1e-9);
+    }
+
+    @Test
+    void testExhaustedKeyIsSkippedUntilMidnightUtc() {
+        SpoonacularKeyPool pool = pool(KEY_ONE, KEY_TWO);
+        SpoonacularKeyPool.ApiKey one = pool.reserve(0);
+
+        pool.markExhausted(one);
+        assertEquals(0, available(KEY_ONE));
+        assertEquals(KEY_TWO, pool.reserve(0).value());
+        assertEquals(150, pool.getRemainingQuota(), 1e-9);
+
+        pool.markExhausted(key(KEY_TWO));
+        assertFalse(pool.hasAvailableKey());
+        SpoonacularQuotaExceededException e = assertThrows(SpoonacularQuotaExceededException.class,
+                () -> pool.reserve(0));
+        String midnight = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+        assertEquals("Spoonacular daily quota exceeded, resets at " + midnight, e.getMessage());
+    }
+
+    @Test
+    void testRateLimitedKeyIsSkippedForRetryAfter() throws InterruptedException {
+        SpoonacularKeyPool pool = pool(KEY_ONE, KEY_TWO);
+        SpoonacularKeyPool.ApiKey one = pool.reserve(0);
+        SpoonacularKeyPool.ApiKey two = key(KEY_TWO);
+
+        pool.markRateLimited(one, Duration.ofMillis(200));
+        assertEquals(KEY_TWO, pool.reserve(0).value());
+
+        // Without Retry-After the configured cooldown (10s) applies
+        pool.markRateLimited(two, null);
+        SpoonacularQuotaExceededException e = assertThrows(SpoonacularQuotaExceededException.class,
+                () -> pool.reserve(0));
+        assertEquals("Spoonacular rate limit reached, try again shortly", e.getMessage());
+
+        Thread.sleep(250);
+        assertEquals(KEY_ONE, pool.reserve(0).value());
+        assertEquals(0, available(KEY_TWO));
+    }
+
+    @Test
+    void testClientMovesToAnotherKeyOn402() {
+        SpoonacularConfig config = TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 150, KEY_ONE, KEY_TWO);
+        SpoonacularKeyPool pool = new SpoonacularKeyPool(config, meterRegistry);
+        STUB.rejectKey(KEY_ONE, 402, null);
+
+        assertNotNull(client(config, pool).information(715538L).block());
+        assertEquals(1, STUB.requestCountForKey(KEY_ONE));
+        assertEquals(1, STUB.requestCountForKey(KEY_TWO));
+        assertEquals(0, available(KEY_ONE));
+        assertEquals(1, meterRegistry.get("spoonacular.key.calls").tag("key", "****1111").tag("status", "402")
+                .counter().count());
+    }
+
+    @Test
+    void testClientHonorsRetryAfterOn429() throws InterruptedException {
+        SpoonacularConfig config = TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 150, KEY_ONE, KEY_TWO);
+        SpoonacularKeyPool pool = new SpoonacularKeyPool(config, meterRegistry);
+        SpoonacularClient client = client(config, pool);
+        STUB.rejectKey(KEY_ONE, 429, "1");
+
+        assertNotNull(client.information(715538L).block());
+        assertEquals(1, STUB.requestCountForKey(KEY_ONE));
+        assertEquals(1, STUB.requestCountForKey(KEY_TWO));
+        assertEquals(0, available(KEY_ONE));
+
+        // Back in rotation once the second has passed, not after the 10s default cooldown
+        Thread.sleep(1100);
+        assertEquals(1, available(KEY_ONE));
+    }
+
+    private SpoonacularKeyPool pool(String... keys) {
+        return new SpoonacularKeyPool(TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 150, keys),
+                meterRegistry);
+    }
+
+    private SpoonacularClient client(SpoonacularConfig config, SpoonacularKeyPool pool) {
+        return new SpoonacularClient(WebClient.create(STUB.baseUrl()), config,
+                new SpoonacularRequestCoalescer(meterRegistry),
+                new SpoonacularRateLimiter(config, pool, meterRegistry),
+                new SpoonacularCircuitBreaker(CircuitBreakerRegistry.ofDefaults(),
+                        new ConcurrentMapCacheManager(CacheConfig.SPOONACULAR_STALE_CACHE), meterRegistry),
+                pool, meterRegistry);
+    }
+
+    // The pool only hands out keys through reserve; an ApiKey is a value, so an equal one identifies the key
+    private static SpoonacularKeyPool.ApiKey key(String value) {
+        return new SpoonacularKeyPool.ApiKey(value, SpoonacularKeyPool.mask(value));
+    }
+
+    private double available(String key) {
+        return meterRegistry.get("spoonacular.key.available").tag("key", SpoonacularKeyPool.mask(key)).gauge().value();
+    }
+}
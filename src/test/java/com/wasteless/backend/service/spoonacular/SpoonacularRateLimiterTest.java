@@ -0,0 +1,188 @@
+package com.wasteless.backend.service.spoonacular;
+
+import com.wasteless.backend.config.SpoonacularConfig;
+import com.wasteless.backend.exception.SpoonacularQuotaExceededException;
+import com.wasteless.backend.support.TestSpoonacularConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonacularRateLimiterTest {
+
+    private static final MultiValueMap<String, String> NO_PARAMS = new LinkedMultiValueMap<>();
+    private static final String KEY_ONE = "key-one-1111";
+    private static final String KEY_TWO = "key-two-2222";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Load Reactor up front, so class loading does not count as time for the bucket to refill
+        Mono.just(0).block();
+    }
+
+    @Test
+    void testBucketDelaysBurstAndRefills() throws InterruptedException {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(2, 5, Duration.ofSeconds(2), 150));
+
+        // Two points in the bucket: the first two calls go straight through, the third waits for a token
+        limiter.acquire("information", NO_PARAMS).block();
+        limiter.acquire("information", NO_PARAMS).block();
+        assertEquals(0, delayed());
+
+        long start = System.nanoTime();
+        assertNotNull(limiter.acquire("information", NO_PARAMS).block());
+        assertEquals(1, delayed());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 100);
+
+        // Refilled back to capacity (but not beyond) after a pause
+        Thread.sleep(700);
+        limiter.acquire("information", NO_PARAMS).block();
+        limiter.acquire("information", NO_PARAMS).block();
+        assertEquals(1, delayed());
+        limiter.acquire("information", NO_PARAMS).block();
+        assertEquals(2, delayed());
+    }
+
+    @Test
+    void testEachKeyHasItsOwnBucket() {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(1, 5, Duration.ofSeconds(2), 150,
+                KEY_ONE, KEY_TWO));
+
+        // One point per key: two calls go straight out, one on each key, and empty both buckets
+        SpoonacularKeyPool.ApiKey first = limiter.acquire("information", NO_PARAMS).block();
+        SpoonacularKeyPool.ApiKey second = limiter.acquire("information", NO_PARAMS).block();
+        assertNotEquals(first, second);
+        assertEquals(0, delayed());
+        assertEquals(0, meterRegistry.get("spoonacular.ratelimit.tokens").gauge().value(), 0.1);
+
+        limiter.acquire("information", NO_PARAMS).block();
+        assertEquals(1, delayed());
+    }
+
+    @Test
+    void testSkippedKeyLendsNoCapacity() {
+        SpoonacularConfig config = TestSpoonacularConfig.of(1, 5, Duration.ofSeconds(2), 150, KEY_ONE, KEY_TWO);
+        SpoonacularKeyPool keyPool = new SpoonacularKeyPool(config, meterRegistry);
+        SpoonacularRateLimiter limiter = new SpoonacularRateLimiter(config, keyPool, meterRegistry);
+        keyPool.markRateLimited(keyPool.reserve(0), null);
+
+        // Only the other key's single point is left: the second call waits for its bucket
+        assertEquals(KEY_TWO, limiter.acquire("information", NO_PARAMS).block().value());
+        assertEquals(0, delayed());
+        assertEquals(KEY_TWO, limiter.acquire("information", NO_PARAMS).block().value());
+        assertEquals(1, delayed());
+    }
+
+    @Test
+    void testRejectsWhenWaitExceedsMaxWait() {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(1, 0.1, Duration.ofSeconds(2), 150));
+
+        limiter.acquire("information", NO_PARAMS).block();
+        // The next point is 10s away
+        assertThrows(SpoonacularQuotaExceededException.class,
+                () -> limiter.acquire("information", NO_PARAMS).block());
+        assertEquals(1, meterRegistry.get("spoonacular.ratelimit.throttled")
+                .tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void testRejectsWhenDailyQuotaSpent() {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 2));
+
+        limiter.acquire("information", NO_PARAMS).block();
+        limiter.acquire("information", NO_PARAMS).block();
+        SpoonacularQuotaExceededException e = assertThrows(SpoonacularQuotaExceededException.class,
+                () -> limiter.acquire("information", NO_PARAMS).block());
+        assertTrue(e.getMessage().contains("daily quota"));
+        assertEquals(1, meterRegistry.get("spoonacular.ratelimit.throttled")
+                .tag("reason", "quota").counter().count());
+    }
+
+    @Test
+    void testEstimatesCostFromPublishedPricing() {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 150));
+
+        assertEquals(1.0, limiter.estimateCost("information", NO_PARAMS), 1e-9);
+        assertEquals(3.0, limiter.estimateCost("informationBulk", params("ids", "1,2,3,4,5")), 1e-9);
+        assertEquals(1.1, limiter.estimateCost("findByIngredients", params("number", "10")), 1e-9);
+        MultiValueMap<String, String> search = params("number", "20");
+        search.add("addRecipeInformation", "true");
+        search.add("fillIngredients", "true");
+        assertEquals(2.2, limiter.estimateCost("complexSearch", search), 1e-9);
+    }
+
+    @Test
+    void testCorrectsCostAndQuotaFromResponseHeaders() {
+        SpoonacularRateLimiter limiter = limiter(TestSpoonacularConfig.of(10, 1, Duration.ofSeconds(2), 150));
+        SpoonacularKeyPool.ApiKey key = limiter.acquire("information", NO_PARAMS).block();
+
+        // Spoonacular charged 3 points where 1 was expected: the first observation replaces the estimate,
+        // later ones move it a fifth of the way
+        limiter.recordResponse("information", NO_PARAMS, key, quotaHeaders("3", "40", "110"));
+        assertEquals(3.0, limiter.estimateCost("information", NO_PARAMS), 1e-9);
+        limiter.recordResponse("information", NO_PARAMS, key, quotaHeaders("1", "41", "109"));
+        assertEquals(2.6, limiter.estimateCost("information", NO_PARAMS), 1e-9);
+        limiter.recordResponse("information", NO_PARAMS, key, quotaHeaders("1", "43", "107"));
+        assertEquals(2.28, limiter.estimateCost("information", NO_PARAMS), 1e-9);
+        // Other endpoints keep their own estimate
+        assertEquals(1.0, limiter.estimateCost("complexSearch", params("number", "0")), 1e-9);
+
+        // The key's quota is resynced from the reported balance
+        assertEquals(107, limiter.getRemainingQuota(), 1e-9);
+        assertEquals(43, meterRegistry.get("spoonacular.quota.used").gauge().value(), 1e-9);
+        assertEquals(3, meterRegistry.get("spoonacular.quota.request.points")
+                .tag("endpoint", "information").summary().count());
+
+        // Missing or malformed headers leave everything as it was
+        limiter.recordResponse("information", NO_PARAMS, key, quotaHeaders(null, "oops", null));
+        assertEquals(2.28, limiter.estimateCost("information", NO_PARAMS), 1e-9);
+        assertEquals(107, limiter.getRemainingQuota(), 1e-9);
+    }
+
+    @Test
+    void testDisabledLimiterStillPicksAKey() {
+        SpoonacularConfig config = TestSpoonacularConfig.of(1, 0.1, Duration.ofSeconds(2), 150);
+        ReflectionTestUtils.setField(config, "rateLimitEnabled", false);
+        SpoonacularRateLimiter limiter = limiter(config);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("test-key-1", limiter.acquire("information", NO_PARAMS).block().value());
+        }
+        assertEquals(0, delayed());
+    }
+
+    private SpoonacularRateLimiter limiter(SpoonacularConfig config) {
+        return new SpoonacularRateLimiter(config, new SpoonacularKeyPool(config, meterRegistry), meterRegistry);
+    }
+
+    private double delayed() {
+        return meterRegistry.find("spoonacular.ratelimit.delayed").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static MultiValueMap<String, String> params(String name, String value) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add(name, value);
+        return params;
+    }
+
+    private static HttpHeaders quotaHeaders(String request, String used, String left) {
+        HttpHeaders headers = new HttpHeaders();
+        if (request != null) headers.set(SpoonacularRateLimiter.QUOTA_REQUEST_HEADER, request);
+        if (used != null) headers.set(SpoonacularRateLimiter.QUOTA_USED_HEADER, used);
+        if (left != null) headers.set(SpoonacularRateLimiter.QUOTA_LEFT_HEADER, left);
+        return headers;
+    }
+}
@@ -0,0 +1,133 @@
+package com.wasteless.backend.service.spoonacular;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonacularRequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SpoonacularRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new SpoonacularRequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void testSameKeySharesOneUpstreamCall() {
+        Sinks.One<String> response = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+        coalescer.execute("/recipes/1/information", () -> upstream(calls, response)).subscribe(first::set);
+        coalescer.execute("/recipes/1/information", () -> upstream(calls, response)).subscribe(second::set);
+        assertEquals(1, inFlight());
+
+        response.tryEmitValue("details");
+
+        assertEquals(1, calls.get());
+        assertEquals("details", first.get());
+        assertEquals("details", second.get());
+        assertEquals(0, inFlight());
+        assertEquals(1, meterRegistry.get("spoonacular.requests.dispatched").counter().count());
+        assertEquals(1, meterRegistry.get("spoonacular.requests.coalesced").counter().count());
+    }
+
+    @Test
+    void testDifferentKeysCallUpstreamSeparately() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute("/recipes/1/information", () -> upstream(calls, Sinks.one())).subscribe();
+        coalescer.execute("/recipes/2/information", () -> upstream(calls, Sinks.one())).subscribe();
+
+        assertEquals(2, calls.get());
+        assertEquals(2, inFlight());
+    }
+
+    @Test
+    void testEntryRemovedOnError() {
+        Sinks.One<String> response = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        coalescer.execute("/recipes/1/information", () -> upstream(calls, response))
+                .subscribe(value -> { }, error::set);
+        response.tryEmitError(new IllegalStateException("upstream failed"));
+
+        assertInstanceOf(IllegalStateException.class, error.get());
+        assertEquals(0, inFlight());
+
+        // The next caller starts a fresh upstream call instead of replaying the error
+        coalescer.execute("/recipes/1/information", () -> Mono.just("retried")).subscribe();
+        assertEquals(1, calls.get());
+        assertEquals(2, meterRegistry.get("spoonacular.requests.dispatched").counter().count());
+    }
+
+    @Test
+    void testEntryRemovedWhenEveryCallerCancels() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        Mono<String> never = Mono.<String>never().doOnCancel(cancelled::incrementAndGet);
+
+        Disposable first = coalescer.execute("/recipes/1/information", () -> {
+            calls.incrementAndGet();
+            return never;
+        }).subscribe();
+        Disposable second = coalescer.execute("/recipes/1/information", () -> {
+            calls.incrementAndGet();
+            return never;
+        }).subscribe();
+
+        first.dispose();
+        assertEquals(1, inFlight(), "still shared by the second caller");
+        assertEquals(0, cancelled.get());
+
+        second.dispose();
+        assertEquals(1, calls.get());
+        assertEquals(1, cancelled.get());
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void testRequestKeyIgnoresApiKeyAndParamOrder() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("number", "10");
+        params.add("apiKey", "secret");
+        params.add("ingredients", "tomato");
+        params.add("ingredients", "chicken");
+
+        MultiValueMap<String, String> reordered = new LinkedMultiValueMap<>();
+        reordered.add("ingredients", "chicken");
+        reordered.add("ingredients", "tomato");
+        reordered.add("number", "10");
+        reordered.add("apiKey", "other");
+
+        String key = SpoonacularRequestCoalescer.requestKey("/recipes/findByIngredients", params);
+        assertEquals("/recipes/findByIngredients?ingredients=chicken&ingredients=tomato&number=10", key);
+        assertEquals(key, SpoonacularRequestCoalescer.requestKey("/recipes/findByIngredients", reordered));
+        assertEquals("/recipes/1/information",
+                SpoonacularRequestCoalescer.requestKey("/recipes/1/information", new LinkedMultiValueMap<>()));
+    }
+
+    private static Mono<String> upstream(AtomicInteger calls, Sinks.One<String> response) {
+        calls.incrementAndGet();
+        return response.asMono();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("spoonacular.requests.inflight").gauge().value();
+    }
+}
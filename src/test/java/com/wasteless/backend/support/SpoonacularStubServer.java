@@ -0,0 +1,353 @@
+package com.wasteless.backend.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Spoonacular endpoints the app calls, replaying the recorded fixtures
+ * in src/test/resources/spoonacular: complexSearch, findByIngredients, {id}/information and informationBulk.
+ * Point spoonacular.api.base-url at {@link #baseUrl()} to use it.
+ * Latency, error rate, hung requests and rejected API keys can be changed between runs to see how the app behaves
+ * when Spoonacular is slow or failing. Responses carry X-API-Quota-* headers with an unlimited quota.
+ */
+public class SpoonacularStubServer implements AutoCloseable {
+
+    private static final Pattern INFORMATION_PATH = Pattern.compile("/recipes/(\\d+)/information");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonNode complexSearch;
+    private final ArrayNode findByIngredients;
+    private final Map<Long, JsonNode> information = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> keyRequestCounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failingEndpoints = new ConcurrentHashMap<>();
+    private final Set<Long> failingRecipes = ConcurrentHashMap.newKeySet();
+    private final Map<String, KeyRejection> rejectedKeys = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile Latency latency = Latency.none();
+    private volatile double errorRate;
+    private volatile double timeoutRate;
+    private volatile Duration hangFor = Duration.ofSeconds(30);
+
+    private record KeyRejection(int status, String retryAfter) {
+    }
+
+    /**
+     * Response delay, sampled per request
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration sample(ThreadLocalRandom random);
+
+        static Latency none() {
+            return random -> Duration.ZERO;
+        }
+
+        static Latency fixed(Duration delay) {
+            return random -> delay;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            return random -> Duration.ofMillis(random.nextLong(min.toMillis(), max.toMillis() + 1));
+        }
+
+        /**
+         * Log-normal around the median, with the given p99: the long-tailed shape real API latencies have
+         */
+        static Latency logNormal(Duration median, Duration p99) {
+            double mu = Math.log(median.toMillis());
+            // 2.326 is the standard normal quantile at 0.99
+            double sigma = (Math.log(p99.toMillis()) - mu) / 2.326;
+            return random -> Duration.ofMillis(Math.round(Math.exp(mu + sigma * random.nextGaussian())));
+        }
+    }
+
+    public SpoonacularStubServer() {
+        this.complexSearch = fixture("complex-search.json");
+        this.findByIngredients = (ArrayNode) fixture("find-by-ingredients.json");
+        for (JsonNode recipe : fixture("information.json")) {
+            information.put(recipe.get("id").asLong(), recipe);
+        }
+
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Unbounded so injected latency never queues requests behind each other
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/recipes/", this::handle);
+    }
+
+    public SpoonacularStubServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public SpoonacularStubServer latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Fraction of requests answered with a 500
+     */
+    public SpoonacularStubServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Fraction of requests left hanging for {@code hangFor} before any response, to trip client timeouts
+     */
+    public SpoonacularStubServer timeoutRate(double timeoutRate, Duration hangFor) {
+        this.timeoutRate = timeoutRate;
+        this.hangFor = hangFor;
+        return this;
+    }
+
+    /**
+     * Answer every request for an endpoint (see {@link #requestCount}) with the given status
+     */
+    public SpoonacularStubServer failEndpoint(String endpoint, int status) {
+        failingEndpoints.put(endpoint, status);
+        return this;
+    }
+
+    /**
+     * Answer the information call for one recipe with a 500 (informationBulk still returns it)
+     */
+    public SpoonacularStubServer failRecipe(long id) {
+        failingRecipes.add(id);
+        return this;
+    }
+
+    /**
+     * Answer every request made with an API key with 402 (quota spent) or 429 (rate limited)
+     *
+     * @param retryAfter Retry-After header value, or null to send none
+     */
+    public SpoonacularStubServer rejectKey(String apiKey, int status, String retryAfter) {
+        rejectedKeys.put(apiKey, new KeyRejection(status, retryAfter));
+        return this;
+    }
+
+    /**
+     * Requests received with an API key, whatever the endpoint
+     */
+    public long requestCountForKey(String apiKey) {
+        AtomicLong count = keyRequestCounts.get(apiKey);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Back to instant, always successful responses, with request counts cleared
+     */
+    public SpoonacularStubServer reset() {
+        latency = Latency.none();
+        errorRate = 0;
+        timeoutRate = 0;
+        failingEndpoints.clear();
+        failingRecipes.clear();
+        rejectedKeys.clear();
+        requestCounts.clear();
+        keyRequestCounts.clear();
+        return this;
+    }
+
+    /**
+     * Requests received for an endpoint: complexSearch, findByIngredients, information or informationBulk
+     */
+    public long requestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    public long totalRequests() {
+        return requestCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+            String endpoint = endpoint(path);
+            requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+            String apiKey = params.get("apiKey");
+            if (apiKey != null) {
+                keyRequestCounts.computeIfAbsent(apiKey, key -> new AtomicLong()).incrementAndGet();
+                KeyRejection rejection = rejectedKeys.get(apiKey);
+                if (rejection != null) {
+                    if (rejection.retryAfter() != null) {
+                        exchange.getResponseHeaders().set("Retry-After", rejection.retryAfter());
+                    }
+                    respond(exchange, rejection.status(), "{\"status\":\"failure\",\"code\":" + rejection.status()
+                            + ",\"message\":\"Injected key rejection\"}");
+                    return;
+                }
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < timeoutRate) {
+                sleep(hangFor);
+                return;
+            }
+            sleep(latency.sample(random));
+            Integer failWith = failingEndpoints.get(endpoint);
+            if (failWith != null) {
+                respond(exchange, failWith, "{\"status\":\"failure\",\"code\":" + failWith
+                        + ",\"message\":\"Injected failure\"}");
+                return;
+            }
+            if (random.nextDouble() < errorRate
+                    || ("information".equals(endpoint) && failingRecipes.contains(recipeId(path)))) {
+                respond(exchange, 500, "{\"status\":\"failure\",\"code\":500,\"message\":\"Injected error\"}");
+                return;
+            }
+
+            JsonNode body = switch (endpoint) {
+                case "complexSearch" -> complexSearch(params);
+                case "findByIngredients" -> first(findByIngredients, number(params, 10));
+                case "information" -> information.get(recipeId(path));
+                case "informationBulk" -> informationBulk(params);
+                default -> null;
+            };
+            if (body == null) {
+                respond(exchange, 404, "{\"status\":\"failure\",\"code\":404,\"message\":\"Not found\"}");
+                return;
+            }
+            respond(exchange, 200, objectMapper.writeValueAsString(body));
+        }
+    }
+
+    private JsonNode complexSearch(Map<String, String> params) {
+        ArrayNode results = first((ArrayNode) complexSearch.get("results"), number(params, 10));
+        ObjectNode response = complexSearch.deepCopy();
+        response.set("results", results);
+        response.put("number", results.size());
+        return response;
+    }
+
+    private JsonNode informationBulk(Map<String, String> params) {
+        ArrayNode recipes = objectMapper.createArrayNode();
+        for (String id : params.getOrDefault("ids", "").split(",")) {
+            if (!id.isBlank() && information.containsKey(Long.parseLong(id.trim()))) {
+                recipes.add(information.get(Long.parseLong(id.trim())));
+            }
+        }
+        return recipes;
+    }
+
+    private ArrayNode first(ArrayNode recipes, int number) {
+        ArrayNode result = objectMapper.createArrayNode();
+        for (int i = 0; i < Math.min(number, recipes.size()); i++) {
+            result.add(recipes.get(i));
+        }
+        return result;
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("X-API-Quota-Request", "1");
+        exchange.getResponseHeaders().set("X-API-Quota-Used", "0");
+        exchange.getResponseHeaders().set("X-API-Quota-Left", "1000000");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String endpoint(String path) {
+        if (INFORMATION_PATH.matcher(path).matches()) {
+            return "information";
+        }
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static Long recipeId(String path) {
+        Matcher matcher = INFORMATION_PATH.matcher(path);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    private static int number(Map<String, String> params, int defaultNumber) {
+        String number = params.get("number");
+        return number != null ? Integer.parseInt(number) : defaultNumber;
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonNode fixture(String name) {
+        try (InputStream in = getClass().getResourceAsStream("/spoonacular/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing Spoonacular fixture: " + name);
+            }
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wasteless.backend.support;
+
+import com.wasteless.backend.config.SpoonacularConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link SpoonacularConfig} for unit tests that build the Spoonacular components without a Spring context
+ */
+public final class TestSpoonacularConfig {
+
+    private TestSpoonacularConfig() {
+    }
+
+    /**
+     * Rate limiting on, a 10s cooldown for rate-limited keys, and the given keys (one "test-key-1" when none)
+     */
+    public static SpoonacularConfig of(double bucketCapacity, double refillPointsPerSecond, Duration maxWait,
+                                       double dailyQuota, String... keys) {
+        SpoonacularConfig config = new SpoonacularConfig();
+        ReflectionTestUtils.setField(config, "apiKey", "");
+        ReflectionTestUtils.setField(config, "apiKeys", keys.length > 0 ? List.of(keys) : List.of("test-key-1"));
+        ReflectionTestUtils.setField(config, "keyRateLimitCooldown", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(config, "rateLimitBucketCapacity", bucketCapacity);
+        ReflectionTestUtils.setField(config, "rateLimitRefillPointsPerSecond", refillPointsPerSecond);
+        ReflectionTestUtils.setField(config, "rateLimitMaxWait", maxWait);
+        ReflectionTestUtils.setField(config, "dailyQuota", dailyQuota);
+        return config;
+    }
+}